@@ -0,0 +1,87 @@
+package user_service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import user_service.cache.codec.CardIdsSerializer;
+import user_service.cache.codec.CardResponseDtoSerializer;
+import user_service.cache.codec.UserResponseDtoSerializer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Encodes and decodes the values the caches actually store: the user without
+// cards (user:id), the user's card ids (user:cards) and a single card (card:id).
+// Entry sizes are reported as jdkBytes / binaryBytes by SnapshotProfiler.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheSerializerBenchmark {
+    private static final int CARDS_PER_USER = 10;
+
+    @Param({"user:id", "user:cards", "card:id"})
+    private String cache;
+
+    private final RedisSerializer<Object> jdkSerializer = RedisSerializer.java();
+
+    private RedisSerializer<Object> binarySerializer;
+
+    private Object value;
+
+    private byte[] jdkBytes;
+
+    private byte[] binaryBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisSerializer<?> serializer;
+        switch (cache) {
+            case "user:id" -> {
+                value = ResponseFixtures.user(0).toBuilder().cards(null).build();
+                serializer = new UserResponseDtoSerializer();
+            }
+            case "user:cards" -> {
+                value = LongStream.range(0, CARDS_PER_USER).toArray();
+                serializer = new CardIdsSerializer();
+            }
+            case "card:id" -> {
+                value = ResponseFixtures.card(1L);
+                serializer = new CardResponseDtoSerializer();
+            }
+            default -> throw new IllegalArgumentException("Unknown cache " + cache);
+        }
+        binarySerializer = (RedisSerializer<Object>) serializer;
+
+        jdkBytes = jdkSerializer.serialize(value);
+        binaryBytes = binarySerializer.serialize(value);
+        SnapshotProfiler.record("jdkBytes", jdkBytes.length, "B/entry");
+        SnapshotProfiler.record("binaryBytes", binaryBytes.length, "B/entry");
+    }
+
+    @Benchmark
+    public byte[] jdkEncode() {
+        return jdkSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binarySerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object jdkDecode() {
+        return jdkSerializer.deserialize(jdkBytes);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+}
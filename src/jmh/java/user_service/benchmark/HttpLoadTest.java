@@ -0,0 +1,126 @@
+package user_service.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator used to compare the default thread-per-request
+ * setup with the {@code virtual-threads} profile. Start the service once per mode
+ * and run against each:
+ * <pre>
+ * java -cp target/test-classes:target/classes user_service.benchmark.HttpLoadTest \
+ *     http://localhost:8080/api/user/1 platform 30 1000,2500,5000,10000
+ * </pre>
+ */
+public class HttpLoadTest {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/api/user/1");
+        String label = args.length > 1 ? args[1] : "service";
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        int[] concurrencyLevels = Arrays.stream((args.length > 3 ? args[3] : "1000,2500,5000,10000")
+                        .split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%-10s %12s %10s %8s %12s %10s %10s%n",
+                "mode", "connections", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (int concurrency : concurrencyLevels) {
+            Result result = run(uri, concurrency, duration);
+            System.out.printf("%-10s %12d %10d %8d %12.1f %10.2f %10.2f%n",
+                    label, concurrency, result.latencies().length, result.errors(),
+                    result.latencies().length / (double) duration.toSeconds(),
+                    percentile(result.latencies(), 0.50), percentile(result.latencies(), 0.99));
+        }
+    }
+
+    private static Result run(URI uri, int concurrency, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            List<Future<LatencyRecorder>> workers = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response =
+                                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            recorder.record(System.nanoTime() - start);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> worker : workers) {
+                total.addAll(worker.get());
+            }
+            long[] latencies = total.toArray();
+            Arrays.sort(latencies);
+            return new Result(latencies, errors.get());
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    private static class LatencyRecorder {
+        private long[] values = new long[1024];
+
+        private int size;
+
+        void record(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyRecorder other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package user_service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.containers.PostgreSQLContainer;
+import user_service.dao.IdChunks;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Compares id lookups whose list size varies between size / 2 and size ids per call.
+// paddedInListChunks goes through IdChunks and pads every chunk to the next power of two
+// the way hibernate.query.in_clause_parameter_padding does. pg_prepared_statements is read
+// at the end of each iteration: how many statements the connection holds server side and
+// how many generic / custom plans Postgres built for them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdLookupBenchmark {
+    private static final int TABLE_SIZE = 20_000;
+
+    @Param({"1", "100", "10000"})
+    private int ids;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private Connection connection;
+
+    // Snapshots, not per-operation counts, so they go through SnapshotProfiler rather
+    // than @AuxCounters, whose events JMH would sum over the measurement iterations
+    @TearDown(Level.Iteration)
+    public void recordPreparedStatements() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*), " +
+                     "coalesce(sum(generic_plans), 0), coalesce(sum(custom_plans), 0) " +
+                     "FROM pg_prepared_statements WHERE from_sql = false")) {
+            resultSet.next();
+            SnapshotProfiler.record("serverStatements", resultSet.getLong(1), "statements");
+            SnapshotProfiler.record("genericPlans", resultSet.getLong(2), "plans");
+            SnapshotProfiler.record("customPlans", resultSet.getLong(3), "plans");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&prepareThreshold=1",
+                postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id bigint PRIMARY KEY, email varchar(100))");
+            statement.execute("INSERT INTO users SELECT id, 'user' || id || '@email.com' " +
+                    "FROM generate_series(1, " + TABLE_SIZE + ") id");
+            statement.execute("ANALYZE users");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int inList() {
+        return queryInList(randomIds(), false).size();
+    }
+
+    @Benchmark
+    public int paddedInListChunks() {
+        return IdChunks.query(randomIds(), chunk -> queryInList(chunk, true)).size();
+    }
+
+    @Benchmark
+    public int anyArray() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, email FROM users WHERE id = ANY(?)")) {
+            Array array = connection.createArrayOf("bigint", randomIds().toArray());
+            statement.setArray(1, array);
+            return fetchIds(statement).size();
+        }
+    }
+
+    // Hibernate pads the list to the next power of two by repeating the last id
+    private List<Long> queryInList(List<Long> idList, boolean padded) {
+        int size = idList.size();
+        int parameters = padded && size > 1 ? Integer.highestOneBit(size - 1) << 1 : size;
+        String sql = "SELECT id, email FROM users WHERE id IN ("
+                + String.join(", ", Collections.nCopies(parameters, "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters; i++) {
+                statement.setLong(i + 1, idList.get(Math.min(i, size - 1)));
+            }
+            return fetchIds(statement);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Long> randomIds() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = ids == 1 ? 1 : random.nextInt(ids / 2, ids + 1);
+        List<Long> idList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            idList.add(random.nextLong(1, TABLE_SIZE + 1));
+        }
+        return idList;
+    }
+
+    private static List<Long> fetchIds(PreparedStatement statement) throws SQLException {
+        List<Long> found = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                found.add(resultSet.getLong(1));
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,32 @@
+package user_service.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+// Same columns as User, but with the IDENTITY ids users had before pooled sequences
+@Entity
+@Table(name = "identity_users")
+public class IdentityUser {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String surname;
+    private LocalDate birthDate;
+    private String email;
+
+    protected IdentityUser() {
+    }
+
+    IdentityUser(String name, String surname, LocalDate birthDate, String email) {
+        this.name = name;
+        this.surname = surname;
+        this.birthDate = birthDate;
+        this.email = email;
+    }
+}
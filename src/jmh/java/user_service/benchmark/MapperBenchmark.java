@@ -0,0 +1,104 @@
+package user_service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
+import user_service.entity.Card;
+import user_service.entity.User;
+import user_service.mapper.CardMapper;
+import user_service.mapper.CardMapperImpl;
+import user_service.mapper.UserMapper;
+import user_service.mapper.UserMapperImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+    private AnnotationConfigApplicationContext context;
+
+    private UserMapper userMapper;
+
+    private CardMapper cardMapper;
+
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(UserMapperImpl.class, CardMapperImpl.class);
+        userMapper = context.getBean(UserMapper.class);
+        cardMapper = context.getBean(CardMapper.class);
+        card = buildCard(buildUser(), 1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserWithCards {
+        @Param({"0", "10", "100"})
+        private int cardCount;
+
+        private User user;
+
+        @Setup
+        public void setUp() {
+            user = buildUser();
+            List<Card> cards = new ArrayList<>(cardCount);
+            for (long i = 0; i < cardCount; i++) {
+                cards.add(buildCard(user, i));
+            }
+            user.setCards(cards);
+        }
+    }
+
+    private static User buildUser() {
+        return User.builder()
+                .id(1L)
+                .name("Name")
+                .surname("Surname")
+                .email("email@email.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static Card buildCard(User user, long id) {
+        return Card.builder()
+                .id(id)
+                .user(user)
+                .number(String.format("%016d", id))
+                .holder("Card Holder")
+                .expirationDate("03/27")
+                .build();
+    }
+
+    @Benchmark
+    public UserResponseDto userToResponseDto(UserWithCards state) {
+        return userMapper.toResponseDto(state.user);
+    }
+
+    @Benchmark
+    public CardResponseDto cardToResponseDto() {
+        return cardMapper.toResponseDto(card);
+    }
+
+    @Benchmark
+    public String capitalizeHolderName() {
+        return cardMapper.capitalizeHolderName(card.getHolder());
+    }
+}
@@ -0,0 +1,38 @@
+package user_service.benchmark;
+
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ResponseFixtures {
+    private ResponseFixtures() {
+    }
+
+    static UserResponseDto user(int cardCount) {
+        List<CardResponseDto> cards = new ArrayList<>(cardCount);
+        for (long i = 0; i < cardCount; i++) {
+            cards.add(card(i));
+        }
+        return UserResponseDto.builder()
+                .id(1L)
+                .name("Name")
+                .surname("Surname")
+                .email("email@email.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .cards(cards)
+                .build();
+    }
+
+    static CardResponseDto card(long id) {
+        return CardResponseDto.builder()
+                .id(id)
+                .userId(1L)
+                .number(String.format("%016d", id))
+                .holder("CARD HOLDER")
+                .expirationDate("03/27")
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package user_service.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reports values a benchmark registered through record() as secondary results, such
+// as encoded entry sizes or server-side statement counts. Unlike @AuxCounters events,
+// which JMH sums over iterations, these are averaged, so the score is the value one
+// iteration observed.
+public class SnapshotProfiler implements InternalProfiler {
+    private record Snapshot(double value, String unit) {
+    }
+
+    private static final Map<String, Snapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    static void record(String label, double value, String unit) {
+        SNAPSHOTS.put(label, new Snapshot(value, unit));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Per-iteration snapshot values";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams,
+                                                       IterationResult result) {
+        return SNAPSHOTS.entrySet().stream()
+                .map(snapshot -> new ScalarResult(snapshot.getKey(), snapshot.getValue().value(),
+                        snapshot.getValue().unit(), AggregationPolicy.AVG))
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package user_service.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import user_service.dao.UserBatchDao;
+import user_service.entity.Card;
+import user_service.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Inserts users the way the service does: through the EntityManager with the
+// IDENTITY ids users had before, through the EntityManager with the pooled
+// users_seq and hibernate.jdbc.batch_size, and through UserBatchDao. The schema
+// comes from the application's Liquibase changelog.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserInsertBenchmark {
+    private static final LocalDate BIRTH_DATE = LocalDate.of(1990, 1, 1);
+
+    @Param({"50", "1000"})
+    private int rows;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private HikariDataSource dataSource;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private SimpleJpaRepository<IdentityUser, Long> identityUsers;
+
+    private SimpleJpaRepository<User, Long> users;
+
+    private UserBatchDao userBatchDao;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE identity_users (id bigserial PRIMARY KEY, " +
+                "name varchar(100), surname varchar(100), birth_date date, " +
+                "email varchar(100) UNIQUE)");
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        entityManagerFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Card.class, IdentityUser.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        entityManager = entityManagerFactory.createEntityManager();
+        identityUsers = new SimpleJpaRepository<>(IdentityUser.class, entityManager);
+        users = new SimpleJpaRepository<>(User.class, entityManager);
+        userBatchDao = new UserBatchDao(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() {
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<IdentityUser> identitySaveAll() {
+        return inTransaction(() -> identityUsers.saveAll(newUsers(email ->
+                new IdentityUser("Name", "Surname", BIRTH_DATE, email))));
+    }
+
+    @Benchmark
+    public List<User> pooledSequenceSaveAll() {
+        return inTransaction(() -> users.saveAll(newUsers(this::user)));
+    }
+
+    @Benchmark
+    public Set<Long> userBatchDaoInsert() {
+        return userBatchDao.insertUsers(newUsers(this::user));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        entityManager.getTransaction().begin();
+        try {
+            T result = work.get();
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.clear();
+        }
+    }
+
+    private User user(String email) {
+        return User.builder()
+                .name("Name")
+                .surname("Surname")
+                .birthDate(BIRTH_DATE)
+                .email(email)
+                .build();
+    }
+
+    private <T> List<T> newUsers(Function<String, T> factory) {
+        List<T> newUsers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            newUsers.add(factory.apply("user" + ++sequence + "@email.com"));
+        }
+        return newUsers;
+    }
+}
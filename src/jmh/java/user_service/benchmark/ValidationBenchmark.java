@@ -0,0 +1,93 @@
+package user_service.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import user_service.dto.card.CardRequestDto;
+import user_service.dto.user.UserRequestDto;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private UserRequestDto validUser;
+
+    private UserRequestDto invalidUser;
+
+    private CardRequestDto validCard;
+
+    private CardRequestDto invalidCard;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        validUser = UserRequestDto.builder()
+                .name("Name")
+                .surname("Surname")
+                .email("email@email.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+        invalidUser = UserRequestDto.builder()
+                .name("")
+                .surname("Surname")
+                .email("@email@email.com")
+                .birthDate(LocalDate.now().plusDays(1))
+                .build();
+        validCard = CardRequestDto.builder()
+                .userId(1L)
+                .number("0011223344556677")
+                .holder("Card Holder")
+                .expirationDate("03/27")
+                .build();
+        invalidCard = CardRequestDto.builder()
+                .userId(1L)
+                .number("00112233")
+                .holder("Card Holder")
+                .expirationDate("13/27")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequestDto>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequestDto>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardRequestDto>> validateValidCard() {
+        return validator.validate(validCard);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardRequestDto>> validateInvalidCard() {
+        return validator.validate(invalidCard);
+    }
+}
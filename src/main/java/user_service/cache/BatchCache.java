@@ -0,0 +1,19 @@
+package user_service.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface BatchCache {
+    // Returns only the keys that were found
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    void putAll(Map<?, ?> entries);
+
+    // Stores values just loaded from the database. Unlike putAll this is not a write,
+    // so other nodes keep their near-cache copies.
+    default void populateAll(Map<?, ?> entries) {
+        putAll(entries);
+    }
+
+    void evictAll(Collection<?> keys);
+}
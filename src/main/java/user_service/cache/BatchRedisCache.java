@@ -0,0 +1,114 @@
+package user_service.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchRedisCache extends RedisCache implements BatchCache {
+    private static final int UNLINK_BATCH_SIZE = 1000;
+
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheLookupMetrics metrics;
+
+    protected BatchRedisCache(String name,
+                              RedisCacheWriter cacheWriter,
+                              RedisCacheConfiguration cacheConfiguration,
+                              RedisConnectionFactory connectionFactory,
+                              CacheLookupMetrics metrics) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.connectionFactory = connectionFactory;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value != null) {
+            metrics.hit();
+        } else {
+            metrics.miss();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        List<Object> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[keyList.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = serializeCacheKey(createCacheKey(keyList.get(i)));
+        }
+
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+
+        Map<Object, Object> result = new HashMap<>();
+        if (rawValues == null) {
+            metrics.record(0, keyList.size());
+            return result;
+        }
+        for (int i = 0; i < rawValues.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue == null) {
+                continue;
+            }
+            Object value = fromStoreValue(deserializeCacheValue(rawValue));
+            if (value != null) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        metrics.record(result.size(), keyList.size() - result.size());
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            entries.forEach((key, value) -> connection.stringCommands().set(
+                    serializeCacheKey(createCacheKey(key)),
+                    serializeCacheValue(toStoreValue(value)),
+                    expirationFor(key, value),
+                    SetOption.upsert()));
+            connection.closePipeline();
+        }
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        List<Object> keyList = new ArrayList<>(keys);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (int from = 0; from < keyList.size(); from += UNLINK_BATCH_SIZE) {
+                List<Object> batch = keyList.subList(from, Math.min(from + UNLINK_BATCH_SIZE, keyList.size()));
+                byte[][] rawKeys = new byte[batch.size()][];
+                for (int i = 0; i < rawKeys.length; i++) {
+                    rawKeys[i] = serializeCacheKey(createCacheKey(batch.get(i)));
+                }
+                connection.keyCommands().unlink(rawKeys);
+            }
+            connection.closePipeline();
+        }
+    }
+
+    private Expiration expirationFor(Object key, Object value) {
+        Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return Expiration.persistent();
+        }
+        return Expiration.from(ttl);
+    }
+}
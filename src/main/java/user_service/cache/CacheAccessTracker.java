@@ -0,0 +1,74 @@
+package user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import user_service.config.CacheWarmupProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheAccessTracker {
+    private static final List<String> TRACKED_CACHES = List.of("user:id", "card:id");
+
+    private final CacheWarmupProperties properties;
+    private final RedisConnectionFactory connectionFactory;
+
+    public void recordAccess(String cacheName, Long id) {
+        if (!properties.isEnabled()
+                || ThreadLocalRandom.current().nextDouble() >= properties.getAccessSampleRate()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.zSetCommands().zIncrBy(key(cacheName), 1, bytes(id.toString()));
+        } catch (RuntimeException e) {
+            log.debug("Could not record access to {} {}", cacheName, id, e);
+        }
+    }
+
+    public List<Long> topIds(String cacheName, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        Set<byte[]> members;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            members = connection.zSetCommands().zRevRange(key(cacheName), 0, count - 1);
+        }
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream()
+                .map(member -> Long.valueOf(new String(member, StandardCharsets.UTF_8)))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.cache.warm-up.trim-interval:10m}")
+    public void trim() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            for (String cacheName : TRACKED_CACHES) {
+                connection.zSetCommands().zRemRange(key(cacheName), 0, -properties.getTrackedIds() - 1L);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not trim cache access statistics", e);
+        }
+    }
+
+    private byte[] key(String cacheName) {
+        return bytes(properties.getKeyPrefix() + cacheName);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
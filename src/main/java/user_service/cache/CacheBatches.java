@@ -0,0 +1,68 @@
+package user_service.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class CacheBatches {
+    private CacheBatches() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> getAll(Cache cache, Collection<K> keys, Class<V> type) {
+        Map<K, V> result = new HashMap<>();
+        if (cache == null || keys.isEmpty()) {
+            return result;
+        }
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.getAll(keys).forEach((key, value) -> {
+                if (type.isInstance(value)) {
+                    result.put((K) key, (V) value);
+                }
+            });
+            return result;
+        }
+        for (K key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && type.isInstance(wrapper.get())) {
+                result.put(key, (V) wrapper.get());
+            }
+        }
+        return result;
+    }
+
+    public static void putAll(Cache cache, Map<?, ?> entries) {
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.putAll(entries);
+            return;
+        }
+        entries.forEach(cache::put);
+    }
+
+    public static void populateAll(Cache cache, Map<?, ?> entries) {
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.populateAll(entries);
+            return;
+        }
+        entries.forEach(cache::put);
+    }
+
+    public static void evictAll(Cache cache, Collection<?> keys) {
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.evictAll(keys);
+            return;
+        }
+        keys.forEach(cache::evict);
+    }
+}
@@ -0,0 +1,57 @@
+package user_service.cache;
+
+import org.springframework.data.redis.serializer.SerializationException;
+import user_service.cache.codec.BinaryReader;
+import user_service.cache.codec.BinaryWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A null key list invalidates the whole cache. Messages arrive from the network, so
+// they are written in a fixed binary layout instead of JDK serialization: origin,
+// cache name, then the key count + 1 (0 for the whole cache) and each key as a
+// type tag followed by a long or a string.
+public record CacheInvalidationMessage(String origin, String cacheName, List<Object> keys) {
+    private static final int LONG_KEY = 1;
+    private static final int STRING_KEY = 2;
+
+    public byte[] encode() {
+        BinaryWriter writer = new BinaryWriter(64);
+        writer.writeString(origin);
+        writer.writeString(cacheName);
+        if (keys == null || !keys.stream().allMatch(key -> key instanceof Long || key instanceof String)) {
+            writer.writeVarInt(0);
+            return writer.toByteArray();
+        }
+        writer.writeVarInt(keys.size() + 1);
+        for (Object key : keys) {
+            if (key instanceof Long id) {
+                writer.writeByte(LONG_KEY);
+                writer.writeSignedVarLong(id);
+            } else {
+                writer.writeByte(STRING_KEY);
+                writer.writeString((String) key);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    public static CacheInvalidationMessage decode(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes, 0);
+        String origin = reader.readString();
+        String cacheName = reader.readString();
+        int size = reader.readVarInt() - 1;
+        if (size < 0) {
+            return new CacheInvalidationMessage(origin, cacheName, null);
+        }
+        List<Object> keys = new ArrayList<>(Math.min(size, bytes.length));
+        for (int i = 0; i < size; i++) {
+            keys.add(switch (reader.readByte()) {
+                case LONG_KEY -> reader.readSignedVarLong();
+                case STRING_KEY -> reader.readString();
+                default -> throw new SerializationException("Unknown key type in cache invalidation");
+            });
+        }
+        return new CacheInvalidationMessage(origin, cacheName, keys);
+    }
+}
@@ -0,0 +1,155 @@
+package user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import user_service.config.StampedeProtectionProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Coalesces concurrent loads of the same key: one loader per key within the JVM,
+// optionally one per cluster through a Redis lease, and entries this node loaded
+// are refreshed slightly before they expire (XFetch) so they don't all miss at once.
+@Slf4j
+@Component
+public class CacheLoadCoordinator {
+    private static final byte[] RELEASE_SCRIPT = ("if redis.call('get', KEYS[1]) == ARGV[1] "
+            + "then return redis.call('del', KEYS[1]) else return 0 end")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final StampedeProtectionProperties properties;
+    private final ObjectProvider<RedisConnectionFactory> connectionFactory;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeToLive;
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    private final Cache<String, LoadStats> loadStats;
+
+    private record LoadStats(long loadedAt, long duration) {
+    }
+
+    public CacheLoadCoordinator(StampedeProtectionProperties properties,
+                                ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.cache.redis.time-to-live:600000}") Duration timeToLive) {
+        this.properties = properties;
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        this.timeToLive = timeToLive;
+        this.loadStats = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String cacheName, Object key, Supplier<V> cachedLookup, Supplier<V> loader) {
+        String flightKey = cacheName + "::" + key;
+        V cached = cachedLookup.get();
+        if (cached != null) {
+            if (!shouldRefreshEarly(flightKey)) {
+                return cached;
+            }
+            Counter.builder("user_service.cache.early_refreshes")
+                    .tag("cache", cacheName)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return (V) singleFlight.load(flightKey,
+                () -> loadOnce(cacheName, flightKey, cached, cachedLookup, loader));
+    }
+
+    private boolean shouldRefreshEarly(String flightKey) {
+        double beta = properties.getEarlyExpirationBeta();
+        LoadStats stats = beta > 0 ? loadStats.getIfPresent(flightKey) : null;
+        if (stats == null) {
+            return false;
+        }
+        long expiresAt = stats.loadedAt()
+                + (long) (timeToLive.toNanos() * (1 - properties.getTtlJitter()));
+        double gap = -stats.duration() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.nanoTime() + gap >= expiresAt;
+    }
+
+    private <V> V loadOnce(String cacheName, String flightKey, V cached,
+                           Supplier<V> cachedLookup, Supplier<V> loader) {
+        StampedeProtectionProperties.Lease lease = properties.getLease();
+        if (!lease.isEnabled()) {
+            return timedLoad(cacheName, flightKey, loader);
+        }
+        byte[] leaseKey = (lease.getKeyPrefix() + flightKey).getBytes(StandardCharsets.UTF_8);
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        if (acquireLease(leaseKey, token, lease.getTimeout())) {
+            try {
+                return timedLoad(cacheName, flightKey, loader);
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+        if (cached != null) {
+            return cached;
+        }
+        V loadedElsewhere = awaitLeaseHolder(cachedLookup, lease);
+        return loadedElsewhere != null ? loadedElsewhere : timedLoad(cacheName, flightKey, loader);
+    }
+
+    private <V> V timedLoad(String cacheName, String flightKey, Supplier<V> loader) {
+        long start = System.nanoTime();
+        V value = Timer.builder("user_service.cache.loads")
+                .tag("cache", cacheName)
+                .register(meterRegistry)
+                .record(loader);
+        long end = System.nanoTime();
+        loadStats.put(flightKey, new LoadStats(end, end - start));
+        return value;
+    }
+
+    private boolean acquireLease(byte[] leaseKey, byte[] token, Duration timeout) {
+        try (RedisConnection connection = connectionFactory.getObject().getConnection()) {
+            return Boolean.TRUE.equals(connection.stringCommands()
+                    .set(leaseKey, token, Expiration.from(timeout), SetOption.ifAbsent()));
+        } catch (RuntimeException e) {
+            log.warn("Could not acquire cache load lease, loading without it", e);
+            return true;
+        }
+    }
+
+    private void releaseLease(byte[] leaseKey, byte[] token) {
+        try (RedisConnection connection = connectionFactory.getObject().getConnection()) {
+            connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1, leaseKey, token);
+        } catch (RuntimeException e) {
+            log.warn("Could not release cache load lease", e);
+        }
+    }
+
+    private <V> V awaitLeaseHolder(Supplier<V> cachedLookup, StampedeProtectionProperties.Lease lease) {
+        long deadline = System.nanoTime() + lease.getWaitTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(lease.getPollInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            V value = cachedLookup.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package user_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CacheLookupMetrics {
+    public static final String METRIC_NAME = "user_service.cache.gets";
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CacheLookupMetrics(MeterRegistry meterRegistry, String cacheName, String tier) {
+        this.hits = counter(meterRegistry, cacheName, tier, "hit");
+        this.misses = counter(meterRegistry, cacheName, tier, "miss");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String cacheName,
+                                   String tier, String result) {
+        return Counter.builder(METRIC_NAME)
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void record(int hitCount, int missCount) {
+        if (hitCount > 0) {
+            hits.increment(hitCount);
+        }
+        if (missCount > 0) {
+            misses.increment(missCount);
+        }
+    }
+}
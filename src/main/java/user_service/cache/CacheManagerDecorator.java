@@ -0,0 +1,15 @@
+package user_service.cache;
+
+import org.springframework.cache.CacheManager;
+
+public interface CacheManagerDecorator {
+    CacheManager getDelegate();
+
+    static CacheManager unwrap(CacheManager cacheManager, Class<? extends CacheManager> type) {
+        CacheManager current = cacheManager;
+        while (!type.isInstance(current) && current instanceof CacheManagerDecorator decorator) {
+            current = decorator.getDelegate();
+        }
+        return type.isInstance(current) ? current : null;
+    }
+}
@@ -0,0 +1,168 @@
+package user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import user_service.config.CacheWarmupProperties;
+import user_service.exception.CardsNotFoundException;
+import user_service.exception.UsersNotFoundException;
+import user_service.service.CardService;
+import user_service.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Loads the most frequently accessed (and explicitly configured) users and cards
+// through the batched service lookups, which only query ids that are not cached.
+// Runs after startup, on demand, and when the marker key disappears from Redis.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer {
+    private final CacheWarmupProperties properties;
+    private final CacheAccessTracker cacheAccessTracker;
+    private final UserService userService;
+    private final CardService cardService;
+    private final RedisConnectionFactory connectionFactory;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Result lastResult;
+
+    public record Result(int users, int cards, Duration duration, Instant finishedAt) {
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (properties.isEnabled() && properties.isOnStartup()) {
+            warmUpAsync();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-service.cache.warm-up.redis-check-interval:30s}",
+            initialDelayString = "${user-service.cache.warm-up.redis-check-interval:30s}")
+    public void warmUpAfterRedisFlush() {
+        if (properties.isEnabled() && !running.get() && !markerExists()) {
+            log.info("Cache warm-up marker is missing, Redis was flushed or restarted");
+            warmUpAsync();
+        }
+    }
+
+    public boolean warmUpAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("cache-warm-up").start(() -> {
+            try {
+                warmUp();
+            } catch (RuntimeException e) {
+                log.warn("Cache warm-up failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        Pacer pacer = new Pacer(properties.getMaxIdsPerSecond());
+        List<Long> userIds = ids(properties.getUserIds(),
+                cacheAccessTracker.topIds("user:id", properties.getTopUsers()));
+        List<Long> cardIds = ids(properties.getCardIds(),
+                cacheAccessTracker.topIds("card:id", properties.getTopCards()));
+
+        load(userIds, pacer, batch -> {
+            try {
+                userService.getUsersByIds(batch);
+            } catch (UsersNotFoundException ignored) {
+            }
+        });
+        load(cardIds, pacer, batch -> {
+            try {
+                cardService.getCardsByIds(batch);
+            } catch (CardsNotFoundException ignored) {
+            }
+        });
+        writeMarker();
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        lastResult = new Result(userIds.size(), cardIds.size(), duration, Instant.now());
+        log.info("Warmed up {} users and {} cards in {}", userIds.size(), cardIds.size(), duration);
+    }
+
+    private static List<Long> ids(List<Long> configuredIds, List<Long> topIds) {
+        Set<Long> ids = new LinkedHashSet<>(configuredIds);
+        ids.addAll(topIds);
+        return List.copyOf(ids);
+    }
+
+    private void load(List<Long> ids, Pacer pacer, Consumer<List<Long>> loader) {
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            List<Long> batch = ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size()));
+            loader.accept(batch);
+            pacer.acquire(batch.size());
+        }
+    }
+
+    private boolean markerExists() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return Boolean.TRUE.equals(connection.keyCommands().exists(marker()));
+        } catch (RuntimeException e) {
+            log.debug("Could not check the cache warm-up marker", e);
+            return true;
+        }
+    }
+
+    private void writeMarker() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(marker(), Instant.now().toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private byte[] marker() {
+        return properties.getMarkerKey().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Spaces batches out so warm-up never loads more than maxIdsPerSecond ids
+    private static class Pacer {
+        private final long start = System.nanoTime();
+        private final double idsPerNano;
+        private long ids;
+
+        Pacer(int maxIdsPerSecond) {
+            this.idsPerNano = maxIdsPerSecond / 1e9;
+        }
+
+        void acquire(int count) {
+            ids += count;
+            long waitNanos = (long) (ids / idsPerNano) - (System.nanoTime() - start);
+            if (waitNanos <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "cachewarmup")
+@RequiredArgsConstructor
+public class CacheWarmupEndpoint {
+    private final CacheWarmer cacheWarmer;
+
+    public record Status(boolean started, boolean running, CacheWarmer.Result lastResult) {
+    }
+
+    @ReadOperation
+    public Status status() {
+        return new Status(false, cacheWarmer.isRunning(), cacheWarmer.getLastResult());
+    }
+
+    @WriteOperation
+    public Status warmUp() {
+        boolean started = cacheWarmer.warmUpAsync();
+        return new Status(started, cacheWarmer.isRunning(), cacheWarmer.getLastResult());
+    }
+}
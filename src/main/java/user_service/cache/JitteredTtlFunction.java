@@ -0,0 +1,25 @@
+package user_service.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+    private final Duration timeToLive;
+    private final double jitter;
+
+    public JitteredTtlFunction(Duration timeToLive, double jitter) {
+        this.timeToLive = timeToLive;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (jitter <= 0) {
+            return timeToLive;
+        }
+        long millis = timeToLive.toMillis();
+        return Duration.ofMillis(millis - (long) (millis * jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,137 @@
+package user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import user_service.config.NegativeCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remembers ids that were recently looked up and not found. Creating an id drops
+// its entry locally right away and, after commit, on every node. Each drop also
+// bumps a generation counter: a lookup records its not-found result only if no drop
+// happened since it started, so a lookup racing the insert can't leave a stale
+// entry behind. A lost invalidation message leaves it until expire-after-write.
+@Component
+@RequiredArgsConstructor
+public class NegativeCache implements MessageListener {
+    private final NegativeCacheProperties properties;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CacheLookupMetrics> metrics = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<String, Boolean> missingKeys;
+
+    @PostConstruct
+    void register() {
+        missingKeys = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        listenerContainer.addMessageListener(this,
+                new ChannelTopic(properties.getInvalidationChannel()));
+        Gauge.builder("user_service.cache.negative.size", missingKeys, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public boolean isMissing(String cacheName, Object key) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        boolean missing = missingKeys.getIfPresent(entryKey(cacheName, key)) != null;
+        CacheLookupMetrics cacheMetrics = metrics.computeIfAbsent(cacheName,
+                name -> new CacheLookupMetrics(meterRegistry, name, "negative"));
+        if (missing) {
+            cacheMetrics.hit();
+        } else {
+            cacheMetrics.miss();
+        }
+        return missing;
+    }
+
+    // Read before the database lookup whose not-found result is passed to putMissing
+    public long generation() {
+        return generation.get();
+    }
+
+    public void putMissing(String cacheName, Object key, long lookupGeneration) {
+        if (!properties.isEnabled() || generation.get() != lookupGeneration) {
+            return;
+        }
+        String entryKey = entryKey(cacheName, key);
+        missingKeys.put(entryKey, Boolean.TRUE);
+        // a drop between the check and the put has already bumped the generation
+        if (generation.get() != lookupGeneration) {
+            missingKeys.invalidate(entryKey);
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        evictAll(cacheName, List.of(key));
+    }
+
+    public void evictAll(String cacheName, Collection<?> keys) {
+        if (!properties.isEnabled() || keys.isEmpty()) {
+            return;
+        }
+        List<String> entryKeys = keys.stream()
+                .map(key -> entryKey(cacheName, key))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEverywhere(entryKeys);
+            return;
+        }
+        evictLocally(entryKeys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictEverywhere(entryKeys);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evictLocally(List.of(new String(message.getBody(), StandardCharsets.UTF_8).split("\n")));
+    }
+
+    private void evictLocally(List<String> entryKeys) {
+        generation.incrementAndGet();
+        missingKeys.invalidateAll(entryKeys);
+    }
+
+    private void evictEverywhere(List<String> entryKeys) {
+        evictLocally(entryKeys);
+        byte[] channel = properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+        byte[] message = String.join("\n", entryKeys).getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel, message);
+        }
+    }
+
+    private static String entryKey(String cacheName, Object key) {
+        return cacheName + "::" + key;
+    }
+}
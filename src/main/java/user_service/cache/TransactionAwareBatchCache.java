@@ -0,0 +1,55 @@
+package user_service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// TransactionAwareCacheDecorator defers put and evict until after commit; this
+// keeps multi-get and pipelined putAll available to CacheBatches.
+public class TransactionAwareBatchCache extends TransactionAwareCacheDecorator implements BatchCache {
+    public TransactionAwareBatchCache(Cache targetCache) {
+        super(targetCache);
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        return CacheBatches.getAll(getTargetCache(), List.<Object>copyOf(keys), Object.class);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<?, ?> copy = new LinkedHashMap<>(entries);
+        afterCommit(() -> CacheBatches.putAll(getTargetCache(), copy));
+    }
+
+    @Override
+    public void populateAll(Map<?, ?> entries) {
+        Map<?, ?> copy = new LinkedHashMap<>(entries);
+        afterCommit(() -> CacheBatches.populateAll(getTargetCache(), copy));
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        List<?> copy = List.copyOf(keys);
+        afterCommit(() -> CacheBatches.evictAll(getTargetCache(), copy));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package user_service.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TransactionAwareBatchCacheManager implements CacheManager, CacheManagerDecorator, DisposableBean {
+    private final CacheManager delegate;
+    private final Map<String, TransactionAwareBatchCache> caches = new ConcurrentHashMap<>();
+
+    public TransactionAwareBatchCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TransactionAwareBatchCache(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    // Only the outermost manager is the bean, so wrapped managers (write-behind
+    // flushing its queue) are shut down through it
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposableBean) {
+            disposableBean.destroy();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package user_service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+public class TwoLevelCache implements Cache, BatchCache {
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+    private final Cache remote;
+    private final BiConsumer<String, List<Object>> invalidationPublisher;
+    private final CacheLookupMetrics metrics;
+
+    public TwoLevelCache(com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local,
+                         Cache remote,
+                         BiConsumer<String, List<Object>> invalidationPublisher,
+                         CacheLookupMetrics metrics) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = local.getIfPresent(key);
+        if (wrapper != null) {
+            metrics.hit();
+            return wrapper;
+        }
+        metrics.miss();
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            local.put(key, wrapper);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type ["
+                    + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = local.getIfPresent(key);
+        if (wrapper != null) {
+            metrics.hit();
+            return (T) wrapper.get();
+        }
+        metrics.miss();
+        T value = remote.get(key, valueLoader);
+        local.put(key, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, new SimpleValueWrapper(value));
+        invalidationPublisher.accept(getName(), List.of(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            local.put(key, new SimpleValueWrapper(value));
+            invalidationPublisher.accept(getName(), List.of(key));
+        } else {
+            local.put(key, existing);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        invalidationPublisher.accept(getName(), List.of(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        local.invalidate(key);
+        invalidationPublisher.accept(getName(), List.of(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+        return invalidated;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> result = new HashMap<>();
+        List<Object> missingKeys = new ArrayList<>();
+        for (Object key : keys) {
+            ValueWrapper wrapper = local.getIfPresent(key);
+            if (wrapper != null && wrapper.get() != null) {
+                result.put(key, wrapper.get());
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        metrics.record(result.size(), missingKeys.size());
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+        Map<Object, Object> remoteHits = CacheBatches.getAll(remote, missingKeys, Object.class);
+        remoteHits.forEach((key, value) -> local.put(key, new SimpleValueWrapper(value)));
+        result.putAll(remoteHits);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        CacheBatches.putAll(remote, entries);
+        entries.forEach((key, value) -> local.put(key, new SimpleValueWrapper(value)));
+        invalidationPublisher.accept(getName(), new ArrayList<>(entries.keySet()));
+    }
+
+    @Override
+    public void populateAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        CacheBatches.populateAll(remote, entries);
+        entries.forEach((key, value) -> local.put(key, new SimpleValueWrapper(value)));
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        CacheBatches.evictAll(remote, keys);
+        local.invalidateAll(keys);
+        invalidationPublisher.accept(getName(), new ArrayList<>(keys));
+    }
+
+    void evictLocal(Object key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+}
@@ -0,0 +1,94 @@
+package user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.SerializationException;
+import user_service.config.NearCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheManager remoteCacheManager;
+    private final RedisConnectionFactory connectionFactory;
+    private final NearCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                RedisConnectionFactory connectionFactory,
+                                NearCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!properties.getCacheNames().contains(name)) {
+            return remoteCacheManager.getCache(name);
+        }
+        return nearCaches.computeIfAbsent(name, this::createNearCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createNearCache(String name) {
+        return new TwoLevelCache(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build(),
+                remoteCacheManager.getCache(name),
+                this::publishInvalidation,
+                new CacheLookupMetrics(meterRegistry, name, "local"));
+    }
+
+    private void publishInvalidation(String cacheName, List<Object> keys) {
+        byte[] channel = properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+        byte[] message = new CacheInvalidationMessage(nodeId, cacheName, keys).encode();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel, message);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.decode(message.getBody());
+        } catch (SerializationException e) {
+            log.warn("Ignoring malformed message on cache invalidation channel");
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoLevelCache cache = nearCaches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.keys() == null) {
+            cache.clearLocal();
+        } else {
+            invalidation.keys().forEach(cache::evictLocal);
+        }
+    }
+}
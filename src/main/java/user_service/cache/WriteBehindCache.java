@@ -0,0 +1,318 @@
+package user_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Applies puts and evictions on a background thread. Pending writes are coalesced
+// per key (only the latest one is applied) and served to local reads until they
+// reach the delegate. Writes made inside a transaction are queued after commit,
+// unless deferUntilCommit is off because TransactionAwareBatchCache wraps this
+// cache and already defers them.
+@Slf4j
+public class WriteBehindCache implements Cache, BatchCache {
+    private final Cache delegate;
+    private final int batchSize;
+    private final Counter overflows;
+    private final boolean deferUntilCommit;
+    private final Map<Object, Write> pending = new ConcurrentHashMap<>();
+    // writes taken off pending by the worker stay readable here until the delegate has them
+    private final Map<Object, Write> flushing = new ConcurrentHashMap<>();
+    private final BlockingQueue<Object> queuedKeys;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // populate marks values loaded from the database; a write to the same key that
+    // is still pending keeps the merged entry a regular write
+    private record Write(Object value, boolean evict, boolean populate) {
+        Write mergeWith(Write previous) {
+            return populate && !previous.populate() ? new Write(value, false, false) : this;
+        }
+    }
+
+    public WriteBehindCache(Cache delegate, int queueCapacity, int batchSize, Counter overflows,
+                            boolean deferUntilCommit) {
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.overflows = overflows;
+        this.deferUntilCommit = deferUntilCommit;
+        this.queuedKeys = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = Thread.ofVirtual()
+                .name("cache-write-behind-" + delegate.getName())
+                .start(this::drainLoop);
+    }
+
+    public int getQueueSize() {
+        return queuedKeys.size();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Write write = localWrite(key);
+        if (write != null) {
+            return write.evict() ? null : new SimpleValueWrapper(write.value());
+        }
+        return delegate.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type ["
+                    + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Write write = localWrite(key);
+        if (write == null) {
+            return delegate.get(key, valueLoader);
+        }
+        if (!write.evict()) {
+            return (T) write.value();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        afterCommit(() -> enqueue(key, new Write(value, false, false)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        afterCommit(() -> enqueue(key, new Write(null, true, false)));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = get(key) != null;
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        flushing.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        pending.clear();
+        flushing.clear();
+        return delegate.invalidate();
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> result = new HashMap<>();
+        List<Object> delegateKeys = new ArrayList<>();
+        for (Object key : keys) {
+            Write write = localWrite(key);
+            if (write == null) {
+                delegateKeys.add(key);
+            } else if (!write.evict() && write.value() != null) {
+                result.put(key, write.value());
+            }
+        }
+        result.putAll(CacheBatches.getAll(delegate, delegateKeys, Object.class));
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<?, ?> copy = new LinkedHashMap<>(entries);
+        afterCommit(() -> copy.forEach((key, value) -> enqueue(key, new Write(value, false, false))));
+    }
+
+    @Override
+    public void populateAll(Map<?, ?> entries) {
+        Map<?, ?> copy = new LinkedHashMap<>(entries);
+        afterCommit(() -> copy.forEach((key, value) -> enqueue(key, new Write(value, false, true))));
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        List<?> copy = List.copyOf(keys);
+        afterCommit(() -> copy.forEach(key -> enqueue(key, new Write(null, true, false))));
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainRemaining();
+    }
+
+    private Write localWrite(Object key) {
+        Write write = pending.get(key);
+        return write != null ? write : flushing.get(key);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!deferUntilCommit || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void enqueue(Object key, Write write) {
+        boolean[] queued = new boolean[1];
+        pending.compute(key, (k, previous) -> {
+            queued[0] = previous != null;
+            return previous == null ? write : write.mergeWith(previous);
+        });
+        if (queued[0] || queuedKeys.offer(key)) {
+            return;
+        }
+        // Only the worker applies writes, so a full queue makes the caller wait for room
+        // rather than race the worker with an older value for the same key. Writes to the
+        // key arriving meanwhile merge into its pending entry.
+        overflows.increment();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (queuedKeys.offer(key, 100, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                    if (!running) {
+                        flush(List.of(key));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                Object key = queuedKeys.poll(100, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    continue;
+                }
+                List<Object> keys = new ArrayList<>(batchSize);
+                keys.add(key);
+                queuedKeys.drainTo(keys, batchSize - 1);
+                flush(keys);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not write behind to cache {}", getName(), e);
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        List<Object> keys = new ArrayList<>();
+        queuedKeys.drainTo(keys);
+        flush(keys);
+    }
+
+    private void flush(List<Object> keys) {
+        Map<Object, Write> writes = new HashMap<>();
+        for (Object key : keys) {
+            Write write = pending.remove(key);
+            if (write != null) {
+                flushing.put(key, write);
+                writes.put(key, write);
+            }
+        }
+        try {
+            apply(keys, writes);
+        } finally {
+            writes.forEach(flushing::remove);
+        }
+    }
+
+    private void apply(List<Object> keys, Map<Object, Write> writes) {
+        Map<Object, Object> puts = new LinkedHashMap<>();
+        Map<Object, Object> populates = new LinkedHashMap<>();
+        List<Object> evictions = new ArrayList<>();
+        for (Object key : keys) {
+            Write write = writes.get(key);
+            if (write == null) {
+                continue;
+            }
+            if (write.evict()) {
+                evictions.add(key);
+            } else if (write.populate()) {
+                populates.put(key, write.value());
+            } else {
+                puts.put(key, write.value());
+            }
+        }
+        CacheBatches.evictAll(delegate, evictions);
+        CacheBatches.putAll(delegate, puts);
+        CacheBatches.populateAll(delegate, populates);
+    }
+}
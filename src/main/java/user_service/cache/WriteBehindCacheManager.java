@@ -0,0 +1,70 @@
+package user_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import user_service.config.WriteBehindProperties;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WriteBehindCacheManager implements CacheManager, CacheManagerDecorator, DisposableBean {
+    private final CacheManager delegate;
+    private final WriteBehindProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean deferUntilCommit;
+    private final Map<String, WriteBehindCache> caches = new ConcurrentHashMap<>();
+
+    public WriteBehindCacheManager(CacheManager delegate,
+                                   WriteBehindProperties properties,
+                                   MeterRegistry meterRegistry,
+                                   boolean deferUntilCommit) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.deferUntilCommit = deferUntilCommit;
+    }
+
+    @Override
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> createWriteBehindCache(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void destroy() {
+        caches.values().forEach(WriteBehindCache::shutdown);
+    }
+
+    private WriteBehindCache createWriteBehindCache(Cache cache) {
+        WriteBehindCache writeBehindCache = new WriteBehindCache(cache,
+                properties.getQueueCapacity(),
+                properties.getBatchSize(),
+                Counter.builder("user_service.cache.write_behind.overflows")
+                        .tag("cache", cache.getName())
+                        .register(meterRegistry),
+                deferUntilCommit);
+        Gauge.builder("user_service.cache.write_behind.queue", writeBehindCache,
+                        WriteBehindCache::getQueueSize)
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        return writeBehindCache;
+    }
+}
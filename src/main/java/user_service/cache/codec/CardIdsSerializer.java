@@ -0,0 +1,26 @@
+package user_service.cache.codec;
+
+public class CardIdsSerializer extends VersionedBinarySerializer<long[]> {
+    private static final int VERSION = 1;
+
+    public CardIdsSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void write(long[] cardIds, BinaryWriter writer) {
+        writer.writeVarInt(cardIds.length);
+        for (long cardId : cardIds) {
+            writer.writeVarLong(cardId);
+        }
+    }
+
+    @Override
+    protected long[] read(BinaryReader reader) {
+        long[] cardIds = new long[reader.readVarInt()];
+        for (int i = 0; i < cardIds.length; i++) {
+            cardIds[i] = reader.readVarLong();
+        }
+        return cardIds;
+    }
+}
@@ -0,0 +1,39 @@
+package user_service.cache.codec;
+
+import user_service.dto.card.CardResponseDto;
+
+public class CardResponseDtoSerializer extends VersionedBinarySerializer<CardResponseDto> {
+    private static final int VERSION = 1;
+
+    public CardResponseDtoSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void write(CardResponseDto card, BinaryWriter writer) {
+        writeCard(card, writer);
+    }
+
+    @Override
+    protected CardResponseDto read(BinaryReader reader) {
+        return readCard(reader);
+    }
+
+    static void writeCard(CardResponseDto card, BinaryWriter writer) {
+        writer.writeNullableLong(card.getId());
+        writer.writeNullableLong(card.getUserId());
+        writer.writeString(card.getNumber());
+        writer.writeString(card.getHolder());
+        writer.writeString(card.getExpirationDate());
+    }
+
+    static CardResponseDto readCard(BinaryReader reader) {
+        return CardResponseDto.builder()
+                .id(reader.readNullableLong())
+                .userId(reader.readNullableLong())
+                .number(reader.readString())
+                .holder(reader.readString())
+                .expirationDate(reader.readString())
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package user_service.cache.codec;
+
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserResponseDtoSerializer extends VersionedBinarySerializer<UserResponseDto> {
+    // 2: user:id holds the user without cards, card ids live in user:cards
+    private static final int VERSION = 2;
+
+    public UserResponseDtoSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void write(UserResponseDto user, BinaryWriter writer) {
+        writer.writeSignedVarLong(user.getId());
+        writer.writeString(user.getName());
+        writer.writeString(user.getSurname());
+        writer.writeDate(user.getBirthDate());
+        writer.writeString(user.getEmail());
+
+        List<CardResponseDto> cards = user.getCards();
+        if (cards == null) {
+            writer.writeVarInt(0);
+            return;
+        }
+        writer.writeVarInt(cards.size() + 1);
+        for (CardResponseDto card : cards) {
+            CardResponseDtoSerializer.writeCard(card, writer);
+        }
+    }
+
+    @Override
+    protected UserResponseDto read(BinaryReader reader) {
+        UserResponseDto.UserResponseDtoBuilder builder = UserResponseDto.builder()
+                .id(reader.readSignedVarLong())
+                .name(reader.readString())
+                .surname(reader.readString())
+                .birthDate(reader.readDate())
+                .email(reader.readString());
+
+        int cardCount = reader.readVarInt() - 1;
+        if (cardCount >= 0) {
+            List<CardResponseDto> cards = new ArrayList<>(cardCount);
+            for (int i = 0; i < cardCount; i++) {
+                cards.add(CardResponseDtoSerializer.readCard(reader));
+            }
+            builder.cards(cards);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,41 @@
+package user_service.cache.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+// Values start with a magic byte and a format version. Entries written in another
+// format (including legacy JDK-serialized ones) deserialize to null, so the cache
+// treats them as misses and reloads them instead of failing the request.
+public abstract class VersionedBinarySerializer<T> implements RedisSerializer<T> {
+    private static final int MAGIC = 0xC5;
+
+    private final int version;
+
+    protected VersionedBinarySerializer(int version) {
+        this.version = version;
+    }
+
+    protected abstract void write(T value, BinaryWriter writer);
+
+    protected abstract T read(BinaryReader reader);
+
+    @Override
+    public byte[] serialize(T value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        BinaryWriter writer = new BinaryWriter(128);
+        writer.writeByte(MAGIC);
+        writer.writeByte(version);
+        write(value, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < 2
+                || (bytes[0] & 0xFF) != MAGIC || (bytes[1] & 0xFF) != version) {
+            return null;
+        }
+        return read(new BinaryReader(bytes, 2));
+    }
+}
@@ -0,0 +1,22 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.batch-lookup")
+public class BatchLookupProperties {
+    // Shared by all requests and kept below the connection pool size
+    private int maxConcurrentQueries = 4;
+    private Loader loader = new Loader();
+
+    @Data
+    public static class Loader {
+        // Collects concurrent single-id cache misses into one IN query
+        private boolean enabled = false;
+        private Duration maxWait = Duration.ofMillis(2);
+        private int maxBatchSize = 100;
+    }
+}
@@ -0,0 +1,15 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.codec")
+public class CacheCodecProperties {
+    private Type type = Type.BINARY;
+
+    public enum Type {
+        BINARY,
+        JDK
+    }
+}
@@ -0,0 +1,112 @@
+package user_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import user_service.cache.BatchRedisCacheManager;
+import user_service.cache.CacheManagerDecorator;
+import user_service.cache.JitteredTtlFunction;
+import user_service.cache.TransactionAwareBatchCacheManager;
+import user_service.cache.TwoLevelCacheManager;
+import user_service.cache.WriteBehindCacheManager;
+import user_service.cache.codec.CardIdsSerializer;
+import user_service.cache.codec.CardResponseDtoSerializer;
+import user_service.cache.codec.UserResponseDtoSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties({CacheProperties.class,
+        NearCacheProperties.class,
+        CacheCodecProperties.class,
+        StampedeProtectionProperties.class,
+        NegativeCacheProperties.class,
+        CacheWarmupProperties.class,
+        WriteBehindProperties.class,
+        BatchLookupProperties.class})
+public class CacheConfig {
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheProperties cacheProperties,
+                                     NearCacheProperties nearCacheProperties,
+                                     CacheCodecProperties cacheCodecProperties,
+                                     StampedeProtectionProperties stampedeProtectionProperties,
+                                     WriteBehindProperties writeBehindProperties,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${user-service.cache.transaction-aware:true}")
+                                     boolean transactionAware) {
+        CacheManager cacheManager = createRedisCacheManager(connectionFactory,
+                cacheProperties, cacheCodecProperties, stampedeProtectionProperties, meterRegistry);
+        if (nearCacheProperties.isEnabled()) {
+            cacheManager = new TwoLevelCacheManager(cacheManager, connectionFactory,
+                    nearCacheProperties, meterRegistry);
+        }
+        if (writeBehindProperties.isEnabled()) {
+            // the transaction-aware wrapper below already defers writes until commit
+            cacheManager = new WriteBehindCacheManager(cacheManager, writeBehindProperties,
+                    meterRegistry, !transactionAware);
+        }
+        if (transactionAware) {
+            cacheManager = new TransactionAwareBatchCacheManager(cacheManager);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheManager cacheManager,
+            NearCacheProperties nearCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (CacheManagerDecorator.unwrap(cacheManager, TwoLevelCacheManager.class)
+                instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(twoLevelCacheManager,
+                    new ChannelTopic(nearCacheProperties.getInvalidationChannel()));
+        }
+        return container;
+    }
+
+    private RedisCacheManager createRedisCacheManager(RedisConnectionFactory connectionFactory,
+                                                      CacheProperties cacheProperties,
+                                                      CacheCodecProperties cacheCodecProperties,
+                                                      StampedeProtectionProperties stampedeProtectionProperties,
+                                                      MeterRegistry meterRegistry) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
+        if (redisProperties.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(new JitteredTtlFunction(
+                    redisProperties.getTimeToLive(), stampedeProtectionProperties.getTtlJitter()));
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        cacheConfigurations.put("user:email", configuration.serializeValuesWith(
+                SerializationPair.fromSerializer(new GenericToStringSerializer<>(Long.class))));
+        if (cacheCodecProperties.getType() == CacheCodecProperties.Type.BINARY) {
+            cacheConfigurations.put("user:id", configuration.serializeValuesWith(
+                    SerializationPair.fromSerializer(new UserResponseDtoSerializer())));
+            cacheConfigurations.put("user:cards", configuration.serializeValuesWith(
+                    SerializationPair.fromSerializer(new CardIdsSerializer())));
+            cacheConfigurations.put("card:id", configuration.serializeValuesWith(
+                    SerializationPair.fromSerializer(new CardResponseDtoSerializer())));
+        }
+        RedisCacheManager redisCacheManager = new BatchRedisCacheManager(connectionFactory,
+                configuration, cacheConfigurations, meterRegistry);
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
+    }
+}
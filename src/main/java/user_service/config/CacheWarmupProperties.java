@@ -0,0 +1,30 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.warm-up")
+public class CacheWarmupProperties {
+    // Opt-in: when enabled, sampled id lookups also write to Redis (ZINCRBY)
+    private boolean enabled = false;
+    private boolean onStartup = true;
+    private int topUsers = 10_000;
+    private int topCards = 10_000;
+    // Always warmed, in addition to the most frequently accessed ids
+    private List<Long> userIds = new ArrayList<>();
+    private List<Long> cardIds = new ArrayList<>();
+    private int batchSize = 500;
+    private int maxIdsPerSecond = 5_000;
+    // Fraction of id lookups recorded in the access-frequency sorted sets
+    private double accessSampleRate = 0.01;
+    private int trackedIds = 100_000;
+    private Duration trimInterval = Duration.ofMinutes(10);
+    private String keyPrefix = "cache:hot:";
+    private String markerKey = "cache:warm-up:marker";
+    private Duration redisCheckInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,18 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.near")
+public class NearCacheProperties {
+    private boolean enabled = true;
+    private Set<String> cacheNames = Set.of("user:id", "user:cards", "user:email", "card:id");
+    private long maximumSize = 10_000;
+    // Upper bound for staleness if an invalidation message is lost
+    private Duration expireAfterWrite = Duration.ofMinutes(1);
+    private String invalidationChannel = "cache:invalidation";
+}
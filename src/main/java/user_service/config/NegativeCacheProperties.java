@@ -0,0 +1,16 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.negative")
+public class NegativeCacheProperties {
+    private boolean enabled = true;
+    // Kept in local memory only, so probing unknown ids can't grow Redis
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+    private String invalidationChannel = "cache:negative";
+}
@@ -0,0 +1,25 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.stampede")
+public class StampedeProtectionProperties {
+    // Fraction of the Redis time-to-live randomly cut from each entry
+    private double ttlJitter = 0.1;
+    // XFetch beta, 0 disables probabilistic early expiration
+    private double earlyExpirationBeta = 1.0;
+    private Lease lease = new Lease();
+
+    @Data
+    public static class Lease {
+        private boolean enabled = false;
+        private String keyPrefix = "lease:";
+        private Duration timeout = Duration.ofSeconds(5);
+        private Duration waitTimeout = Duration.ofSeconds(1);
+        private Duration pollInterval = Duration.ofMillis(25);
+    }
+}
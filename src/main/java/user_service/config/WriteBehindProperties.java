@@ -0,0 +1,13 @@
+package user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user-service.cache.write-behind")
+public class WriteBehindProperties {
+    private boolean enabled = false;
+    // When full, writers wait for the background worker instead of dropping the write
+    private int queueCapacity = 10_000;
+    private int batchSize = 100;
+}
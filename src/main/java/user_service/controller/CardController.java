@@ -57,4 +57,10 @@ public class CardController {
     public void deleteCard(@PathVariable long id) {
         cardService.deleteCard(id);
     }
+
+    @DeleteMapping()
+    @ResponseStatus(HttpStatus.OK)
+    public List<Long> deleteCards(@RequestParam List<Long> ids) {
+        return cardService.deleteCards(ids);
+    }
 }
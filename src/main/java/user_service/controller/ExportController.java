@@ -0,0 +1,72 @@
+package user_service.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import user_service.exception.InvalidRequestException;
+import user_service.service.ExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api")
+public class ExportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    public ExportController(ExportService exportService,
+                            @Value("${user-service.export.timeout:1h}") Duration timeout) {
+        this.exportService = exportService;
+        this.timeout = timeout;
+    }
+
+    private final ExportService exportService;
+
+    // Exports can run far longer than other async requests, so they carry their own
+    // timeout instead of raising spring.mvc.async.request-timeout for every endpoint
+    private final Duration timeout;
+
+    @GetMapping("/user/stream")
+    public WebAsyncTask<Void> streamUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            HttpServletResponse response) {
+        validateLimit(limit);
+        return stream(response, outputStream -> exportService.exportUsers(after, limit, outputStream));
+    }
+
+    @GetMapping("/card/stream")
+    public WebAsyncTask<Void> streamCards(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            HttpServletResponse response) {
+        validateLimit(limit);
+        return stream(response, outputStream -> exportService.exportCards(after, limit, outputStream));
+    }
+
+    private WebAsyncTask<Void> stream(HttpServletResponse response, Export export) {
+        response.setContentType(NDJSON);
+        return new WebAsyncTask<>(timeout.toMillis(), () -> {
+            OutputStream outputStream = response.getOutputStream();
+            export.writeTo(outputStream);
+            outputStream.flush();
+            return null;
+        });
+    }
+
+    private void validateLimit(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new InvalidRequestException("Limit must be positive");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+}
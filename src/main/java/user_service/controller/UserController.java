@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import user_service.dto.user.UserImportResultDto;
 import user_service.dto.user.UserRequestDto;
 import user_service.dto.user.UserResponseDto;
 import user_service.service.UserService;
@@ -34,6 +35,12 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserImportResultDto> addUsers(@RequestBody List<UserRequestDto> users) {
+        return userService.createUsers(users);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public UserResponseDto getUserById(@PathVariable long id) {
@@ -60,4 +67,10 @@ public class UserController {
     public void deleteUser(@PathVariable long id) {
         userService.deleteUser(id);
     }
+
+    @DeleteMapping()
+    @ResponseStatus(HttpStatus.OK)
+    public List<Long> deleteUsers(@RequestParam List<Long> ids) {
+        return userService.deleteUsers(ids);
+    }
 }
\ No newline at end of file
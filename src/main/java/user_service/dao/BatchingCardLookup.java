@@ -0,0 +1,40 @@
+package user_service.dao;
+
+import org.springframework.stereotype.Component;
+import user_service.config.BatchLookupProperties;
+import user_service.dto.card.CardResponseDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Callers parked in the loader hold no transaction or connection; the only read
+// transaction is the read-only one on the CardDao query the batch flush runs.
+@Component
+public class BatchingCardLookup {
+    private final CardDao cardDao;
+    private final BatchingLoader<CardResponseDto> loader;
+
+    public BatchingCardLookup(CardDao cardDao, BatchLookupProperties properties) {
+        this.cardDao = cardDao;
+        BatchLookupProperties.Loader loaderProperties = properties.getLoader();
+        this.loader = loaderProperties.isEnabled()
+                ? new BatchingLoader<>(this::findCardResponsesByIdIn,
+                        loaderProperties.getMaxWait(), loaderProperties.getMaxBatchSize())
+                : null;
+    }
+
+    public Optional<CardResponseDto> findCardResponseById(Long id) {
+        if (loader == null) {
+            return cardDao.findCardResponseById(id);
+        }
+        return Optional.ofNullable(loader.load(id));
+    }
+
+    private Map<Long, CardResponseDto> findCardResponsesByIdIn(List<Long> ids) {
+        return IdChunks.query(ids, cardDao::findCardResponsesByIdIn).stream()
+                .collect(Collectors.toMap(CardResponseDto::getId, Function.identity()));
+    }
+}
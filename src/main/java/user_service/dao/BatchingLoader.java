@@ -0,0 +1,90 @@
+package user_service.dao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Collects concurrent single-id loads into one batch query. The first caller of a batch
+// waits up to maxWait (or until maxBatchSize ids are queued), runs the batch on its own
+// thread and completes every other caller's future. Ids missing from the batch result
+// load as null.
+public class BatchingLoader<V> {
+    private final Function<List<Long>, Map<Long, V>> batchLoader;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFull = lock.newCondition();
+    private Map<Long, CompletableFuture<V>> current = new LinkedHashMap<>();
+
+    public BatchingLoader(Function<List<Long>, Map<Long, V>> batchLoader, Duration maxWait, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+    }
+
+    public V load(Long id) {
+        Map<Long, CompletableFuture<V>> batch;
+        CompletableFuture<V> future;
+        boolean leader;
+        lock.lock();
+        try {
+            batch = current;
+            leader = batch.isEmpty();
+            future = batch.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.size() >= maxBatchSize) {
+                current = new LinkedHashMap<>();
+                batchFull.signalAll();
+            }
+            if (leader) {
+                awaitBatch(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leader) {
+            dispatch(batch);
+        }
+        return join(future);
+    }
+
+    private void awaitBatch(Map<Long, CompletableFuture<V>> batch) {
+        long remaining = maxWaitNanos;
+        try {
+            while (current == batch && remaining > 0) {
+                remaining = batchFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current == batch) {
+            current = new LinkedHashMap<>();
+        }
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<V>> batch) {
+        try {
+            Map<Long, V> values = batchLoader.apply(new ArrayList<>(batch.keySet()));
+            batch.forEach((id, future) -> future.complete(values.get(id)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package user_service.dao;
+
+import org.springframework.stereotype.Component;
+import user_service.config.BatchLookupProperties;
+import user_service.dto.user.UserCardRow;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Callers parked in the loader hold no transaction or connection; the only read
+// transaction is the read-only one on the UserDao query the batch flush runs.
+@Component
+public class BatchingUserLookup {
+    private final UserDao userDao;
+    private final BatchingLoader<List<UserCardRow>> loader;
+
+    public BatchingUserLookup(UserDao userDao, BatchLookupProperties properties) {
+        this.userDao = userDao;
+        BatchLookupProperties.Loader loaderProperties = properties.getLoader();
+        this.loader = loaderProperties.isEnabled()
+                ? new BatchingLoader<>(this::findUserRowsByIdIn,
+                        loaderProperties.getMaxWait(), loaderProperties.getMaxBatchSize())
+                : null;
+    }
+
+    public List<UserCardRow> findUserRowsById(Long id) {
+        if (loader == null) {
+            return userDao.findUserRowsById(id);
+        }
+        List<UserCardRow> rows = loader.load(id);
+        return rows == null ? List.of() : rows;
+    }
+
+    private Map<Long, List<UserCardRow>> findUserRowsByIdIn(List<Long> ids) {
+        return IdChunks.query(ids, userDao::findUserRowsByIdIn).stream()
+                .collect(Collectors.groupingBy(UserCardRow::id));
+    }
+}
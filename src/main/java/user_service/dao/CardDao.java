@@ -1,25 +1,55 @@
 package user_service.dao;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import user_service.dto.card.CardOwnerRow;
+import user_service.dto.card.CardResponseDto;
 import user_service.entity.Card;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardDao extends JpaRepository<Card, Long> {
+    String CARD_RESPONSE = "SELECT new user_service.dto.card.CardResponseDto(" +
+            "card.id, card.user.id, card.number, card.holder, card.expirationDate) " +
+            "FROM Card card ";
+
     @Query("SELECT card FROM Card card WHERE card.id = :id")
     public Optional<Card> findCardById(Long id);
 
-    public List<Card> findCardsByIdIn(List<Long> ids);
+    @Transactional(readOnly = true)
+    @Query(CARD_RESPONSE + "WHERE card.id = :id")
+    public Optional<CardResponseDto> findCardResponseById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query(CARD_RESPONSE + "WHERE card.id IN :ids")
+    public List<CardResponseDto> findCardResponsesByIdIn(Collection<Long> ids);
 
     @Modifying
     @Query(value = "DELETE FROM public.card_info " +
             "WHERE card_info.id = :id", nativeQuery = true)
     public void deleteCardById(Long id);
 
-    public Optional<Card> findCardByNumber(String number);
+    @Query(value = "DELETE FROM public.card_info " +
+            "WHERE card_info.id = ANY(:ids) " +
+            "RETURNING card_info.id AS \"id\", card_info.user_id AS \"userId\"", nativeQuery = true)
+    public List<CardOwnerRow> deleteCardsByIdIn(Long[] ids);
+
+    public List<Card> findCardsByUserIdIn(List<Long> userIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    public Stream<Card> streamCardsByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
 }
@@ -0,0 +1,38 @@
+package user_service.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Runs IN-list lookups in chunks of at most CHUNK_SIZE ids. With Hibernate's IN clause
+// padding every chunk renders one of a few statement shapes (1, 2, 4 ... 1024 parameters),
+// so the query plan and prepared statement caches stay small and no query can exceed
+// the driver's bind parameter limit.
+public final class IdChunks {
+    public static final int CHUNK_SIZE = 1000;
+
+    private IdChunks() {
+    }
+
+    public static <T> List<T> query(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() <= CHUNK_SIZE) {
+            return query.apply(ids);
+        }
+        List<T> result = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids)) {
+            result.addAll(query.apply(chunk));
+        }
+        return result;
+    }
+
+    public static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(List.copyOf(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))));
+        }
+        return chunks;
+    }
+}
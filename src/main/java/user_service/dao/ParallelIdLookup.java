@@ -0,0 +1,68 @@
+package user_service.dao;
+
+import org.springframework.stereotype.Component;
+import user_service.config.BatchLookupProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+// Runs the chunks of a large id lookup concurrently, each on its own virtual thread and
+// pooled connection, and merges the results in chunk order. A semaphore shared by all
+// requests caps how many chunk queries run at once. Must not be called inside a
+// transaction that should see the results, as chunks run outside of it.
+@Component
+public class ParallelIdLookup {
+    private final Semaphore permits;
+    private final int maxConcurrentQueries;
+
+    public ParallelIdLookup(BatchLookupProperties properties) {
+        this.maxConcurrentQueries = properties.getMaxConcurrentQueries();
+        this.permits = new Semaphore(Math.max(maxConcurrentQueries, 1), true);
+    }
+
+    public <T> List<T> query(List<Long> ids, Function<List<Long>, List<T>> query) {
+        List<List<Long>> chunks = IdChunks.chunks(ids);
+        if (chunks.size() <= 1 || maxConcurrentQueries <= 1) {
+            return IdChunks.query(ids, query);
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<T>>> futures = new ArrayList<>(chunks.size());
+            for (List<Long> chunk : chunks) {
+                futures.add(executor.submit(() -> queryWithPermit(chunk, query)));
+            }
+            List<T> result = new ArrayList<>();
+            try {
+                for (Future<List<T>> future : futures) {
+                    result.addAll(future.get());
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for id lookup", e);
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+            return result;
+        }
+    }
+
+    private <T> List<T> queryWithPermit(List<Long> chunk, Function<List<Long>, List<T>> query)
+            throws InterruptedException {
+        permits.acquire();
+        try {
+            return query.apply(chunk);
+        } finally {
+            permits.release();
+        }
+    }
+}
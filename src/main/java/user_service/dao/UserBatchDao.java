@@ -0,0 +1,84 @@
+package user_service.dao;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import user_service.entity.User;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "user_service.batch_dao", histogram = true)
+public class UserBatchDao {
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String ALLOCATE_IDS = "SELECT nextval('public.users_seq') " +
+            "FROM generate_series(1, ?)";
+    private static final String INSERT_USERS = "INSERT INTO public.users " +
+            "(id, name, surname, birth_date, email) " +
+            "SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::date[], ?::varchar[]) " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<Long> insertUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = allocateIds(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.get(i));
+        }
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_USERS)) {
+                statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                statement.setArray(2, arrayOf(connection, "varchar", users, User::getName));
+                statement.setArray(3, arrayOf(connection, "varchar", users, User::getSurname));
+                statement.setArray(4, arrayOf(connection, "date", users,
+                        user -> user.getBirthDate() == null ? null : Date.valueOf(user.getBirthDate())));
+                statement.setArray(5, arrayOf(connection, "varchar", users, User::getEmail));
+                Set<Long> insertedIds = new HashSet<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        insertedIds.add(resultSet.getLong(1));
+                    }
+                }
+                return insertedIds;
+            }
+        });
+    }
+
+    private Array arrayOf(Connection connection, String type, List<User> users,
+                          Function<User, Object> column) throws SQLException {
+        Object[] values = new Object[users.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = column.apply(users.get(i));
+        }
+        return connection.createArrayOf(type, values);
+    }
+
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockEnd : blockEnds) {
+            for (long id = blockEnd - ID_ALLOCATION_SIZE + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -1,26 +1,77 @@
 package user_service.dao;
 
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Table;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import user_service.dto.user.UserCardIdRow;
+import user_service.dto.user.UserCardRow;
 import user_service.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @Table(name = "users")
-public interface UserDao extends CrudRepository<User, Long> {
-    public Optional<User> findUserById(Long id);
+public interface UserDao extends JpaRepository<User, Long> {
+    String USER_CARD_ROWS = "SELECT new user_service.dto.user.UserCardRow(" +
+            "user.id, user.name, user.surname, user.birthDate, user.email, " +
+            "card.id, card.number, card.holder, card.expirationDate) " +
+            "FROM User user LEFT JOIN user.cards card ";
 
+    // Loads the cards with the user for updates that map the whole user back;
+    // card writes only check the owner with existsById / getReferenceById
     @EntityGraph(attributePaths = {"cards"})
-    @Query("SELECT user FROM User user " +
-            "WHERE user.id IN :ids")
-    List<User> findUsersByIdIn(List<Long> ids);
+    public Optional<User> findUserById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query(USER_CARD_ROWS + "WHERE user.id = :id ORDER BY card.id")
+    public List<UserCardRow> findUserRowsById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query(USER_CARD_ROWS + "WHERE user.id IN :ids ORDER BY user.id, card.id")
+    public List<UserCardRow> findUserRowsByIdIn(Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(USER_CARD_ROWS + "WHERE user.email = :email ORDER BY card.id")
+    public List<UserCardRow> findUserRowsByEmail(String email);
+
+    String USER_CARD_IDS = "SELECT new user_service.dto.user.UserCardIdRow(user.id, user.email, card.id) " +
+            "FROM User user LEFT JOIN user.cards card ";
+
+    @Query(USER_CARD_IDS + "WHERE user.id = :id")
+    public List<UserCardIdRow> findUserCardIdsById(Long id);
+
+    @Query(USER_CARD_IDS + "WHERE user.id IN :ids")
+    public List<UserCardIdRow> findUserCardIdsByIdIn(Collection<Long> ids);
+
+    // FOR UPDATE blocks card inserts for these users (they take FOR KEY SHARE on the
+    // user row), so card ids read afterwards match what the delete cascade removes
+    @Query(value = "SELECT users.id FROM public.users " +
+            "WHERE users.id = ANY(:ids) ORDER BY users.id FOR UPDATE", nativeQuery = true)
+    public List<Long> lockUsersByIdIn(Long[] ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM public.users " +
+            "WHERE users.id = :id", nativeQuery = true)
+    public int deleteUserById(Long id);
 
-    public Optional<User> findUserByEmail(String email);
+    @Query(value = "DELETE FROM public.users " +
+            "WHERE users.id = ANY(:ids) RETURNING users.id", nativeQuery = true)
+    public List<Long> deleteUsersByIdIn(Long[] ids);
 
-    public void deleteUserById(Long id);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    public Stream<User> streamUsersByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
 }
@@ -0,0 +1,7 @@
+package user_service.dto.card;
+
+public interface CardOwnerRow {
+    Long getId();
+
+    Long getUserId();
+}
@@ -0,0 +1,4 @@
+package user_service.dto.user;
+
+public record UserCardIdRow(Long id, String email, Long cardId) {
+}
@@ -0,0 +1,14 @@
+package user_service.dto.user;
+
+import java.time.LocalDate;
+
+public record UserCardRow(Long id,
+                          String name,
+                          String surname,
+                          LocalDate birthDate,
+                          String email,
+                          Long cardId,
+                          String number,
+                          String holder,
+                          String expirationDate) {
+}
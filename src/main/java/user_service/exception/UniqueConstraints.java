@@ -0,0 +1,23 @@
+package user_service.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public final class UniqueConstraints {
+    public static final String USERS_EMAIL = "users_email_key";
+    public static final String CARD_INFO_NUMBER = "card_info_number_key";
+
+    private UniqueConstraints() {
+    }
+
+    public static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraintName.equalsIgnoreCase(violation.getConstraintName());
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+}
@@ -5,10 +5,17 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.ReportingPolicy;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserCardRow;
 import user_service.dto.user.UserRequestDto;
 import user_service.dto.user.UserResponseDto;
 import user_service.entity.User;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
         unmappedTargetPolicy = ReportingPolicy.ERROR,
         uses = {CardMapper.class})
@@ -19,7 +26,29 @@ public interface UserMapper {
     @Mapping(target = "cards", source = "cards")
     UserResponseDto toResponseDto(User user);
 
+    @Mapping(target = "cards", ignore = true)
+    UserResponseDto toResponseDtoWithoutCards(User user);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "cards", ignore = true)
     void updateUserFromDto(UserRequestDto userRequestDto, @MappingTarget User target);
-}
\ No newline at end of file
+
+    default List<UserResponseDto> toResponseDtos(List<UserCardRow> rows) {
+        Map<Long, UserResponseDto> users = new LinkedHashMap<>();
+        for (UserCardRow row : rows) {
+            UserResponseDto user = users.computeIfAbsent(row.id(), id -> UserResponseDto.builder()
+                    .id(id)
+                    .name(row.name())
+                    .surname(row.surname())
+                    .birthDate(row.birthDate())
+                    .email(row.email())
+                    .cards(new ArrayList<>())
+                    .build());
+            if (row.cardId() != null) {
+                user.getCards().add(new CardResponseDto(row.cardId(), row.id(), row.number(),
+                        row.holder(), row.expirationDate()));
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
+}
@@ -1,15 +1,25 @@
 package user_service.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.CacheBatches;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.cache.NegativeCache;
+import user_service.dao.BatchingCardLookup;
 import user_service.dao.CardDao;
+import user_service.dao.ParallelIdLookup;
 import user_service.dao.UserDao;
+import user_service.dto.card.CardOwnerRow;
 import user_service.dto.card.CardRequestDto;
 import user_service.dto.card.CardResponseDto;
 import user_service.entity.Card;
@@ -17,82 +27,162 @@ import user_service.entity.User;
 import user_service.exception.CardNotFoundException;
 import user_service.exception.CardNumberNotUniqueException;
 import user_service.exception.CardsNotFoundException;
+import user_service.exception.InvalidRequestException;
+import user_service.exception.UniqueConstraints;
 import user_service.exception.UserNotFoundException;
 import user_service.mapper.CardMapper;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "user_service.service", histogram = true)
 public class CardService {
+    private static final int MAX_DELETE_SIZE = 10_000;
+
     private final UserDao userDao;
     private final CardDao cardDao;
     private final CardMapper cardMapper;
     private final CacheManager cacheManager;
+    private final ParallelIdLookup parallelIdLookup;
+    private final BatchingCardLookup batchingCardLookup;
+    private final MeterRegistry meterRegistry;
+    private final CacheLoadCoordinator cacheLoadCoordinator;
+    private final NegativeCache negativeCache;
+    private final CacheAccessTracker cacheAccessTracker;
+
+    private void recordBatchSize(String operation, int size) {
+        DistributionSummary.builder("user_service.batch.size")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
+    }
 
-    private void validateCardNumberUnique(CardRequestDto cardRequestDto) throws CardNumberNotUniqueException {
-        String number = cardRequestDto.getNumber();
-        if (cardDao.findCardByNumber(number).isPresent()) {
-            throw new CardNumberNotUniqueException();
+    private Card saveCard(Card card) throws CardNumberNotUniqueException {
+        try {
+            return cardDao.saveAndFlush(card);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CARD_INFO_NUMBER)) {
+                throw new CardNumberNotUniqueException();
+            }
+            throw e;
         }
     }
 
+    // The card only needs the owner's foreign key, so the owner is checked and
+    // referenced without loading the user or its cards
     private User getCardOwnerUserById(CardRequestDto cardRequestDto) throws UserNotFoundException {
         final long userId = cardRequestDto.getUserId();
-        return userDao.findUserById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
+        if (!userDao.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return userDao.getReferenceById(userId);
+    }
+
+    // Card writes patch the owners' cached card id sets instead of evicting them, so the
+    // next user read stays a cache hit. Sets that are not cached are left to the next read.
+    // Like the card:id writes, the puts are applied after commit.
+    private void updateCachedCardIds(Map<Long, Set<Long>> addedByUser,
+                                     Map<Long, Set<Long>> removedByUser) {
+        Cache userCardsCache = cacheManager.getCache("user:cards");
+        Set<Long> userIds = new HashSet<>(addedByUser.keySet());
+        userIds.addAll(removedByUser.keySet());
+        Map<Long, long[]> updated = new HashMap<>();
+        CacheBatches.getAll(userCardsCache, userIds, long[].class).forEach((userId, cardIds) -> {
+            Set<Long> removed = removedByUser.getOrDefault(userId, Set.of());
+            updated.put(userId, LongStream.concat(Arrays.stream(cardIds),
+                            addedByUser.getOrDefault(userId, Set.of()).stream().mapToLong(Long::longValue))
+                    .filter(cardId -> !removed.contains(cardId))
+                    .distinct()
+                    .sorted()
+                    .toArray());
+        });
+        CacheBatches.putAll(userCardsCache, updated);
     }
 
+    @Transactional
     @CachePut(value = "card:id", key = "#result.id")
-    @CacheEvict(value = "user:id", key = "#cardRequestDto.userId")
     public CardResponseDto createCard(CardRequestDto cardRequestDto) {
-        validateCardNumberUnique(cardRequestDto);
         Card card = cardMapper.toCard(cardRequestDto);
         card.setUser(getCardOwnerUserById(cardRequestDto));
-        card = cardDao.save(card);
+        card = saveCard(card);
+        negativeCache.evict("card:id", card.getId());
+        updateCachedCardIds(Map.of(cardRequestDto.getUserId(), Set.of(card.getId())), Map.of());
         return cardMapper.toResponseDto(card);
     }
 
-    @Cacheable("card:id")
     public CardResponseDto getCardById(Long id) {
-        Card card = cardDao.findCardById(id)
-                .orElseThrow(() -> new CardNotFoundException(id));
-        return cardMapper.toResponseDto(card);
+        if (negativeCache.isMissing("card:id", id)) {
+            throw new CardNotFoundException(id);
+        }
+        cacheAccessTracker.recordAccess("card:id", id);
+        Cache cardCache = cacheManager.getCache("card:id");
+        return cacheLoadCoordinator.get("card:id", id,
+                () -> cardCache == null ? null : cardCache.get(id, CardResponseDto.class),
+                () -> {
+                    long generation = negativeCache.generation();
+                    CardResponseDto card = batchingCardLookup.findCardResponseById(id).orElse(null);
+                    if (card == null) {
+                        negativeCache.putMissing("card:id", id, generation);
+                        throw new CardNotFoundException(id);
+                    }
+                    CacheBatches.populateAll(cardCache, Map.of(id, card));
+                    return card;
+                });
     }
 
     @Transactional
-    @Caching(put = {
-            @CachePut(value = "card:id", key = "#id")
-    }, evict = {
-            @CacheEvict(value = "user:id", key = "#cardRequestDto.userId")
-    })
+    @CachePut(value = "card:id", key = "#id")
     public CardResponseDto updateCard(CardRequestDto cardRequestDto, long id) {
         Card card = cardDao.findCardById(id)
                 .orElseThrow(() -> new CardNotFoundException(id));
-        if (!cardRequestDto.getNumber().equals(card.getNumber())) {
-            validateCardNumberUnique(cardRequestDto);
-        }
 
         cardMapper.updateCardFromDto(cardRequestDto, card);
         long previousUserId = card.getUser().getId();
         if (previousUserId != cardRequestDto.getUserId()) {
-            cacheManager.getCache("user:id").evict(previousUserId);
             card.setUser(getCardOwnerUserById(cardRequestDto));
+            updateCachedCardIds(Map.of(cardRequestDto.getUserId(), Set.of(id)),
+                    Map.of(previousUserId, Set.of(id)));
         }
 
-        cardDao.save(card);
+        saveCard(card);
         return cardMapper.toResponseDto(card);
     }
 
     public List<CardResponseDto> getCardsByIds(List<Long> ids) {
-        List<Card> cards = cardDao.findCardsByIdIn(ids);
-        if (cards == null || cards.isEmpty()) {
+        List<Long> uniqueIds = ids.stream().distinct().toList();
+        recordBatchSize("cards.get", uniqueIds.size());
+        Cache cardCache = cacheManager.getCache("card:id");
+        Map<Long, CardResponseDto> cards =
+                CacheBatches.getAll(cardCache, uniqueIds, CardResponseDto.class);
+
+        List<Long> missingIds = uniqueIds.stream()
+                .filter(id -> !cards.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            Map<Long, CardResponseDto> loadedCards = parallelIdLookup.query(missingIds, cardDao::findCardResponsesByIdIn)
+                    .stream()
+                    .collect(Collectors.toMap(CardResponseDto::getId, Function.identity()));
+            CacheBatches.populateAll(cardCache, loadedCards);
+            cards.putAll(loadedCards);
+        }
+
+        if (cards.isEmpty()) {
             throw new CardsNotFoundException();
         }
-        return cards
-                .stream()
-                .map(cardMapper::toResponseDto)
+        return uniqueIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -102,7 +192,32 @@ public class CardService {
         Card card = cardDao.findCardById(id)
                 .orElseThrow(() -> new CardNotFoundException(id));
 
-        cacheManager.getCache("user:id").evict(card.getUser().getId());
         cardDao.delete(card);
+        updateCachedCardIds(Map.of(), Map.of(card.getUser().getId(), Set.of(id)));
+    }
+
+    @Transactional
+    public List<Long> deleteCards(List<Long> ids) {
+        List<Long> uniqueIds = ids.stream().distinct().toList();
+        recordBatchSize("cards.delete", uniqueIds.size());
+        if (uniqueIds.size() > MAX_DELETE_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_DELETE_SIZE
+                    + " cards can be deleted at once");
+        }
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<CardOwnerRow> deletedCards = cardDao.deleteCardsByIdIn(uniqueIds.toArray(Long[]::new));
+        Set<Long> deletedIds = deletedCards.stream()
+                .map(CardOwnerRow::getId)
+                .collect(Collectors.toSet());
+        CacheBatches.evictAll(cacheManager.getCache("card:id"), deletedIds);
+        updateCachedCardIds(Map.of(), deletedCards.stream()
+                .collect(Collectors.groupingBy(CardOwnerRow::getUserId,
+                        Collectors.mapping(CardOwnerRow::getId, Collectors.toSet()))));
+        return uniqueIds.stream()
+                .filter(deletedIds::contains)
+                .toList();
     }
 }
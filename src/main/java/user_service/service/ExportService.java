@@ -0,0 +1,113 @@
+package user_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import user_service.dao.CardDao;
+import user_service.dao.UserDao;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
+import user_service.entity.Card;
+import user_service.entity.User;
+import user_service.mapper.CardMapper;
+import user_service.mapper.UserMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserDao userDao;
+    private final CardDao cardDao;
+    private final UserMapper userMapper;
+    private final CardMapper cardMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void exportUsers(long after, Integer limit, OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userDao.streamUsersByIdGreaterThanOrderByIdAsc(after, toLimit(limit));
+             JsonGenerator generator = createGenerator(outputStream)) {
+            Iterator<User> iterator = users.iterator();
+            List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeUsers(chunk, generator);
+                }
+            }
+            writeUsers(chunk, generator);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCards(long after, Integer limit, OutputStream outputStream) throws IOException {
+        try (Stream<Card> cards = cardDao.streamCardsByIdGreaterThanOrderByIdAsc(after, toLimit(limit));
+             JsonGenerator generator = createGenerator(outputStream)) {
+            Iterator<Card> iterator = cards.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writeLine(cardMapper.toResponseDto(iterator.next()), generator);
+                if (++written % CHUNK_SIZE == 0) {
+                    flushChunk(generator);
+                }
+            }
+            flushChunk(generator);
+        }
+    }
+
+    // Cards of a whole chunk are fetched with one query instead of one lazy load per user
+    private void writeUsers(List<User> chunk, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = chunk.stream().map(User::getId).toList();
+        Map<Long, List<CardResponseDto>> cardsByUserId = cardDao.findCardsByUserIdIn(userIds)
+                .stream()
+                .map(cardMapper::toResponseDto)
+                .collect(Collectors.groupingBy(CardResponseDto::getUserId));
+
+        for (User user : chunk) {
+            UserResponseDto userResponseDto = userMapper.toResponseDtoWithoutCards(user);
+            userResponseDto.setCards(cardsByUserId.getOrDefault(user.getId(), List.of()));
+            writeLine(userResponseDto, generator);
+        }
+        chunk.clear();
+        flushChunk(generator);
+    }
+
+    private void writeLine(Object value, JsonGenerator generator) throws IOException {
+        objectMapper.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    // Detaching what was written keeps the persistence context, and so the heap, flat
+    private void flushChunk(JsonGenerator generator) throws IOException {
+        generator.flush();
+        entityManager.clear();
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private Limit toLimit(Integer limit) {
+        return limit == null ? Limit.unlimited() : Limit.of(limit);
+    }
+}
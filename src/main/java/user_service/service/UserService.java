@@ -1,49 +1,259 @@
 package user_service.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.CacheBatches;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.cache.NegativeCache;
+import user_service.dao.BatchingUserLookup;
+import user_service.dao.IdChunks;
+import user_service.dao.ParallelIdLookup;
+import user_service.dao.UserBatchDao;
 import user_service.dao.UserDao;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserCardIdRow;
+import user_service.dto.user.UserImportResultDto;
 import user_service.dto.user.UserRequestDto;
 import user_service.dto.user.UserResponseDto;
 import user_service.entity.User;
 import user_service.exception.EmailAlreadyExistsException;
 import user_service.exception.InvalidRequestException;
+import user_service.exception.UniqueConstraints;
 import user_service.exception.UserNotFoundException;
 import user_service.exception.UsersNotFoundException;
 import user_service.mapper.UserMapper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "user_service.service", histogram = true)
 public class UserService {
+    private static final int MAX_IMPORT_SIZE = 10_000;
+    private static final int MAX_DELETE_SIZE = 10_000;
+
     private final UserDao userDao;
+    private final UserBatchDao userBatchDao;
     private final UserMapper userMapper;
     private final CacheManager cacheManager;
+    private final ParallelIdLookup parallelIdLookup;
+    private final BatchingUserLookup batchingUserLookup;
+    private final MeterRegistry meterRegistry;
+    private final Validator validator;
+    private final CacheLoadCoordinator cacheLoadCoordinator;
+    private final NegativeCache negativeCache;
+    private final CacheAccessTracker cacheAccessTracker;
+
+    private void recordBatchSize(String operation, int size) {
+        DistributionSummary.builder("user_service.batch.size")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private User saveUser(User user) throws EmailAlreadyExistsException {
+        try {
+            return userDao.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.USERS_EMAIL)) {
+                throw new EmailAlreadyExistsException(user.getEmail());
+            }
+            throw e;
+        }
+    }
 
     @Transactional
-    @CachePut(value = "user:id", key = "#result.id")
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
-        String email = userRequestDto.getEmail();
-        if (userDao.findUserByEmail(email).isPresent()) {
-            throw new EmailAlreadyExistsException(email);
+        User user = saveUser(userMapper.toUser(userRequestDto));
+        UserResponseDto userResponseDto = userMapper.toResponseDto(user);
+        negativeCache.evict("user:id", userResponseDto.getId());
+        cacheUsers(List.of(userResponseDto));
+        return userResponseDto;
+    }
+
+    @Transactional
+    public List<UserImportResultDto> createUsers(List<UserRequestDto> userRequestDtos) {
+        recordBatchSize("users.import", userRequestDtos.size());
+        if (userRequestDtos.size() > MAX_IMPORT_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_IMPORT_SIZE
+                    + " users can be imported at once");
+        }
+
+        UserImportResultDto[] results = new UserImportResultDto[userRequestDtos.size()];
+        Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int i = 0; i < userRequestDtos.size(); i++) {
+            UserRequestDto userRequestDto = userRequestDtos.get(i);
+            List<String> errors = validateImportedUser(userRequestDto);
+            if (!errors.isEmpty()) {
+                results[i] = importResult(i, userRequestDto, UserImportResultDto.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            } else if (indexByEmail.putIfAbsent(userRequestDto.getEmail(), i) != null) {
+                results[i] = importResult(i, userRequestDto,
+                        UserImportResultDto.Status.DUPLICATE_EMAIL).build();
+            }
+        }
+
+        List<Integer> indexes = new ArrayList<>(indexByEmail.values());
+        List<User> users = indexes.stream()
+                .map(index -> userMapper.toUser(userRequestDtos.get(index)))
+                .toList();
+
+        Set<Long> insertedIds = userBatchDao.insertUsers(users);
+        negativeCache.evictAll("user:id", insertedIds);
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            Long id = users.get(i).getId();
+            results[index] = insertedIds.contains(id)
+                    ? importResult(index, userRequestDtos.get(index),
+                            UserImportResultDto.Status.CREATED).id(id).build()
+                    : importResult(index, userRequestDtos.get(index),
+                            UserImportResultDto.Status.DUPLICATE_EMAIL).build();
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<String> validateImportedUser(UserRequestDto userRequestDto) {
+        if (userRequestDto == null) {
+            return List.of("User is missing");
         }
+        return validator.validate(userRequestDto)
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .toList();
+    }
 
-        User user = userMapper.toUser(userRequestDto);
-        user = userDao.save(user);
-        return userMapper.toResponseDto(user);
+    private UserImportResultDto.UserImportResultDtoBuilder importResult(
+            int index, UserRequestDto userRequestDto, UserImportResultDto.Status status) {
+        return UserImportResultDto.builder()
+                .index(index)
+                .email(userRequestDto == null ? null : userRequestDto.getEmail())
+                .status(status);
     }
 
-    @Cacheable("user:id")
     public UserResponseDto getUserById(Long id) {
-        User user = userDao.findUserById(id).orElseThrow(() -> new UserNotFoundException(id));
-        return userMapper.toResponseDto(user);
+        if (negativeCache.isMissing("user:id", id)) {
+            throw new UserNotFoundException(id);
+        }
+        cacheAccessTracker.recordAccess("user:id", id);
+        return cacheLoadCoordinator.get("user:id", id,
+                () -> getCachedUsers(List.of(id)).get(id),
+                () -> {
+                    long generation = negativeCache.generation();
+                    List<UserResponseDto> users =
+                            userMapper.toResponseDtos(batchingUserLookup.findUserRowsById(id));
+                    if (users.isEmpty()) {
+                        negativeCache.putMissing("user:id", id, generation);
+                        throw new UserNotFoundException(id);
+                    }
+                    populateUsers(users);
+                    return users.getFirst();
+                });
+    }
+
+    private Map<Long, UserResponseDto> getCachedUsers(Collection<Long> ids) {
+        Map<Long, UserResponseDto> users =
+                CacheBatches.getAll(cacheManager.getCache("user:id"), ids, UserResponseDto.class);
+        Map<Long, long[]> cardIdsByUser =
+                CacheBatches.getAll(cacheManager.getCache("user:cards"), users.keySet(), long[].class);
+        List<Long> missingCardSets = users.keySet()
+                .stream()
+                .filter(id -> !cardIdsByUser.containsKey(id))
+                .toList();
+        if (!missingCardSets.isEmpty()) {
+            Map<Long, long[]> loadedCardIds = loadCardIds(missingCardSets);
+            CacheBatches.populateAll(cacheManager.getCache("user:cards"), loadedCardIds);
+            cardIdsByUser.putAll(loadedCardIds);
+        }
+        List<Long> cardIds = cardIdsByUser.values()
+                .stream()
+                .flatMapToLong(Arrays::stream)
+                .boxed()
+                .toList();
+        Map<Long, CardResponseDto> cards =
+                CacheBatches.getAll(cacheManager.getCache("card:id"), cardIds, CardResponseDto.class);
+
+        Map<Long, UserResponseDto> result = new HashMap<>();
+        cardIdsByUser.forEach((id, userCardIds) -> {
+            List<CardResponseDto> userCards = new ArrayList<>(userCardIds.length);
+            for (long cardId : userCardIds) {
+                CardResponseDto card = cards.get(cardId);
+                if (card == null) {
+                    return;
+                }
+                userCards.add(card);
+            }
+            result.put(id, users.get(id).toBuilder().cards(userCards).build());
+        });
+        return result;
+    }
+
+    // A user whose core entry is cached but whose card id set is not only needs the
+    // card ids; the cards themselves usually still sit in card:id
+    private Map<Long, long[]> loadCardIds(List<Long> userIds) {
+        Map<Long, List<Long>> cardIdsByUser = new HashMap<>();
+        for (UserCardIdRow row : IdChunks.query(userIds, userDao::findUserCardIdsByIdIn)) {
+            List<Long> userCardIds = cardIdsByUser.computeIfAbsent(row.id(), id -> new ArrayList<>());
+            if (row.cardId() != null) {
+                userCardIds.add(row.cardId());
+            }
+        }
+        Map<Long, long[]> result = new HashMap<>();
+        cardIdsByUser.forEach((id, userCardIds) -> result.put(id, userCardIds.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray()));
+        return result;
+    }
+
+    private void cacheUsers(Collection<UserResponseDto> users) {
+        storeUsers(users, CacheBatches::putAll);
+    }
+
+    // Read-path backfill: the values come straight from the database, so other
+    // nodes don't need to drop their near-cache copies
+    private void populateUsers(Collection<UserResponseDto> users) {
+        storeUsers(users, CacheBatches::populateAll);
+    }
+
+    private void storeUsers(Collection<UserResponseDto> users, BiConsumer<Cache, Map<?, ?>> store) {
+        Map<Long, UserResponseDto> userCores = new HashMap<>();
+        Map<Long, long[]> cardIdsByUser = new HashMap<>();
+        Map<Long, CardResponseDto> cards = new HashMap<>();
+        for (UserResponseDto user : users) {
+            List<CardResponseDto> userCards = user.getCards() == null ? List.of() : user.getCards();
+            userCores.put(user.getId(), user.toBuilder().cards(null).build());
+            cardIdsByUser.put(user.getId(), userCards.stream()
+                    .mapToLong(CardResponseDto::getId)
+                    .toArray());
+            userCards.forEach(card -> cards.put(card.getId(), card));
+        }
+        store.accept(cacheManager.getCache("card:id"), cards);
+        store.accept(cacheManager.getCache("user:cards"), cardIdsByUser);
+        store.accept(cacheManager.getCache("user:id"), userCores);
     }
 
     public Object getUsersByIdsOrEmail(List<Long> ids, String email) {
@@ -60,49 +270,139 @@ public class UserService {
     }
 
     public List<UserResponseDto> getUsersByIds(List<Long> ids) {
-        List<User> users = userDao.findUsersByIdIn(ids);
-        if (users == null || users.isEmpty()) {
+        List<Long> uniqueIds = ids.stream().distinct().toList();
+        recordBatchSize("users.get", uniqueIds.size());
+        Map<Long, UserResponseDto> users = getCachedUsers(uniqueIds);
+
+        List<Long> missingIds = uniqueIds.stream()
+                .filter(id -> !users.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            Map<Long, UserResponseDto> loadedUsers =
+                    userMapper.toResponseDtos(parallelIdLookup.query(missingIds, userDao::findUserRowsByIdIn))
+                            .stream()
+                            .collect(Collectors.toMap(UserResponseDto::getId, Function.identity()));
+            populateUsers(loadedUsers.values());
+            users.putAll(loadedUsers);
+        }
+
+        if (users.isEmpty()) {
             throw new UsersNotFoundException();
         }
-        return users
-                .stream()
-                .map(userMapper::toResponseDto)
+        return uniqueIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-
     public UserResponseDto getUserByEmail(String email) {
-        User user = userDao.findUserByEmail(email).orElseThrow(() -> new UserNotFoundException(email));
-        return userMapper.toResponseDto(user);
+        Cache emailCache = cacheManager.getCache("user:email");
+        UserResponseDto cachedUser = getCachedUserByEmail(emailCache, email);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+
+        UserResponseDto user = userMapper.toResponseDtos(userDao.findUserRowsByEmail(email))
+                .stream()
+                .findFirst()
+                .orElse(null);
+        if (user == null) {
+            throw new UserNotFoundException(email);
+        }
+        populateUsers(List.of(user));
+        CacheBatches.populateAll(emailCache, Map.of(email, user.getId()));
+        return user;
+    }
+
+    private UserResponseDto getCachedUserByEmail(Cache emailCache, String email) {
+        if (emailCache == null) {
+            return null;
+        }
+        Long id = emailCache.get(email, Long.class);
+        if (id == null) {
+            return null;
+        }
+        UserResponseDto user = getCachedUsers(List.of(id)).get(id);
+        if (user == null || !email.equals(user.getEmail())) {
+            return null;
+        }
+        return user;
+    }
+
+    private void evictEmailIndex(String email) {
+        Cache emailCache = cacheManager.getCache("user:email");
+        if (emailCache != null) {
+            emailCache.evict(email);
+        }
     }
 
     @Transactional
-    @CachePut(value = "user:id", key = "#id")
     public UserResponseDto updateUser(UserRequestDto userRequestDto, long id) {
         User existingUser = userDao.findUserById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
-        String email = userRequestDto.getEmail();
-
-        boolean emailChanged = !existingUser.getEmail().equals(email);
-        if (emailChanged) {
-            if (userDao.findUserByEmail(email).isPresent()) {
-                throw new EmailAlreadyExistsException(email);
-            }
-        }
+        String previousEmail = existingUser.getEmail();
 
         userMapper.updateUserFromDto(userRequestDto, existingUser);
-        userDao.save(existingUser);
-        return userMapper.toResponseDto(existingUser);
+        saveUser(existingUser);
+        if (!previousEmail.equals(existingUser.getEmail())) {
+            evictEmailIndex(previousEmail);
+        }
+        UserResponseDto userResponseDto = userMapper.toResponseDto(existingUser);
+        cacheUsers(List.of(userResponseDto));
+        return userResponseDto;
     }
 
     @Transactional
-    @CacheEvict(value = "user:id", key = "#id")
     public void deleteUser(long id) {
-        User user = userDao.findUserById(id).orElseThrow(() -> new UserNotFoundException(id));
-        if (user.getCards() != null) {
-            user.getCards().forEach((card) ->
-                    cacheManager.getCache("card:id").evict(card.getId()));
+        if (userDao.lockUsersByIdIn(new Long[]{id}).isEmpty()) {
+            throw new UserNotFoundException(id);
+        }
+        List<UserCardIdRow> rows = userDao.findUserCardIdsById(id);
+        userDao.deleteUserById(id);
+        evictDeletedUsers(rows);
+    }
+
+    @Transactional
+    public List<Long> deleteUsers(List<Long> ids) {
+        List<Long> uniqueIds = ids.stream().distinct().toList();
+        recordBatchSize("users.delete", uniqueIds.size());
+        if (uniqueIds.size() > MAX_DELETE_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_DELETE_SIZE
+                    + " users can be deleted at once");
+        }
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> lockedIds = userDao.lockUsersByIdIn(uniqueIds.toArray(Long[]::new));
+        if (lockedIds.isEmpty()) {
+            return List.of();
+        }
+        List<UserCardIdRow> rows = IdChunks.query(lockedIds, userDao::findUserCardIdsByIdIn);
+        List<Long> deletedIds = userDao.deleteUsersByIdIn(lockedIds.toArray(Long[]::new));
+        Set<Long> deleted = Set.copyOf(deletedIds);
+        evictDeletedUsers(rows.stream()
+                .filter(row -> deleted.contains(row.id()))
+                .toList());
+        return uniqueIds.stream()
+                .filter(deleted::contains)
+                .toList();
+    }
+
+    private void evictDeletedUsers(List<UserCardIdRow> rows) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+        List<Long> cardIds = new ArrayList<>();
+        for (UserCardIdRow row : rows) {
+            userIds.add(row.id());
+            emails.add(row.email());
+            if (row.cardId() != null) {
+                cardIds.add(row.cardId());
+            }
         }
-        userDao.delete(user);
+        CacheBatches.evictAll(cacheManager.getCache("user:id"), userIds);
+        CacheBatches.evictAll(cacheManager.getCache("user:cards"), userIds);
+        CacheBatches.evictAll(cacheManager.getCache("card:id"), cardIds);
+        CacheBatches.evictAll(cacheManager.getCache("user:email"), emails);
     }
 }
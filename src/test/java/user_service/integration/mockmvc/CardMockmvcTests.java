@@ -25,6 +25,8 @@ import user_service.exception.CardNumberNotUniqueException;
 import user_service.exception.UserNotFoundException;
 import user_service.service.CardService;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.doNothing;
@@ -191,4 +193,14 @@ public class CardMockmvcTests {
                 .andExpect(status().isNotFound())
                 .andExpect(status().reason("Card with id 1 not found"));
     }
+
+    @Test
+    public void deleteCardsTest_success_returnsDeletedIds() throws Exception {
+        when(cardService.deleteCards(List.of(1L, 2L))).thenReturn(List.of(2L));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/card").param("ids", "1", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", equalTo(2)));
+    }
 }
@@ -0,0 +1,79 @@
+package user_service.integration.mockmvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import user_service.controller.ExceptionController;
+import user_service.controller.ExportController;
+import user_service.service.ExportService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@EnableWebMvc
+@SpringBootTest(classes = {ExportController.class,
+        ExceptionController.class})
+public class ExportMockmvcTests {
+    @MockitoBean
+    private ExportService exportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void streamUsers_success_writesNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("{\"id\":11}\n{\"id\":12}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportUsers(eq(10L), eq(2), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/user/stream?after=10&limit=2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":11}\n{\"id\":12}\n"));
+    }
+
+    @Test
+    public void streamCards_usesExportTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/card/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofHours(1).toMillis());
+    }
+
+    @Test
+    public void streamCards_nonPositiveLimit_400() throws Exception {
+        mockMvc.perform(get("/api/card/stream?limit=0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
+}
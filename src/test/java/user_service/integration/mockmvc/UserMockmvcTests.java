@@ -21,6 +21,7 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import user_service.controller.ExceptionController;
 import user_service.controller.UserController;
 import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserImportResultDto;
 import user_service.dto.user.UserRequestDto;
 import user_service.dto.user.UserResponseDto;
 import user_service.exception.InvalidRequestException;
@@ -145,6 +146,25 @@ public class UserMockmvcTests {
                 .andExpect(responseBodyEqualsDto(userResponseDto));
     }
 
+    @Test
+    public void createUsersTest_success() throws Exception {
+        when(userService.createUsers(List.of(userRequestDto))).thenReturn(List.of(
+                UserImportResultDto.builder()
+                        .index(0)
+                        .email("email@email.com")
+                        .status(UserImportResultDto.Status.CREATED)
+                        .id(1L)
+                        .build()));
+
+        mockMvc.perform(post("/api/user/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userRequestDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
     @Test
     public void createNewUserTest_failure_incorrectEmailFormat() throws Exception {
         userRequestDto.setEmail("@email@email.com");
@@ -257,4 +277,26 @@ public class UserMockmvcTests {
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    public void testDeleteUsers_success_returnsDeletedIds() throws Exception {
+        when(userService.deleteUsers(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(delete("/api/user").param("ids", "1", "2", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is(1)))
+                .andExpect(jsonPath("$[1]", is(3)));
+    }
+
+    @Test
+    public void testDeleteUsers_failure_tooManyIds() throws Exception {
+        when(userService.deleteUsers(List.of(1L)))
+                .thenThrow(new InvalidRequestException("At most 10000 users can be deleted at once"));
+
+        mockMvc.perform(delete("/api/user").param("ids", "1"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
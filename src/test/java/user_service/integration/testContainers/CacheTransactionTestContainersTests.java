@@ -0,0 +1,197 @@
+package user_service.integration.testContainers;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import user_service.dao.CardDao;
+import user_service.dao.UserDao;
+import user_service.dto.card.CardRequestDto;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserRequestDto;
+import user_service.dto.user.UserResponseDto;
+import user_service.service.CardService;
+import user_service.service.UserService;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class CacheTransactionTestContainersTests {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private CardDao cardDao;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:15-alpine"
+    );
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:7.0-alpine"))
+                    .withExposedPorts(6379);
+
+    private UserResponseDto user;
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+        redis.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+        redis.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        user = userService.createUser(buildUserRequestDto("Name"));
+        userService.getUserById(user.getId());
+    }
+
+    private UserRequestDto buildUserRequestDto(String name) {
+        return UserRequestDto.builder()
+                .name(name)
+                .surname("Surname")
+                .email(UUID.randomUUID() + "@test.com")
+                .birthDate(LocalDate.now().minusYears(20))
+                .build();
+    }
+
+    private CardRequestDto buildCardRequestDto() {
+        return CardRequestDto.builder()
+                .number(String.format("%016d", ThreadLocalRandom.current().nextLong(10_000_000_000_000_000L)))
+                .holder("CARD HOLDER")
+                .expirationDate("03/27")
+                .userId(user.getId())
+                .build();
+    }
+
+    private static void failCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                throw new IllegalStateException("Commit failed");
+            }
+        });
+    }
+
+    @Test
+    void createUser_committed_isCachedAfterCommit() {
+        Cache userCache = cacheManager.getCache("user:id");
+
+        assertThat(userCache.get(user.getId(), UserResponseDto.class)).isNotNull();
+        assertThat(userCache.get(user.getId(), UserResponseDto.class).getName()).isEqualTo("Name");
+    }
+
+    @Test
+    void updateUser_failingCommit_keepsCommittedCachedUser() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(buildUserRequestDto("Uncommitted Name"), user.getId());
+            failCommit();
+        }));
+
+        UserResponseDto cachedUser = cacheManager.getCache("user:id")
+                .get(user.getId(), UserResponseDto.class);
+        assertThat(cachedUser).isNotNull();
+        assertThat(cachedUser.getName()).isEqualTo("Name");
+        assertThat(userDao.findUserById(user.getId()).orElseThrow().getName()).isEqualTo("Name");
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("Name");
+    }
+
+    @Test
+    void createUser_failingCommit_isNotCached() {
+        AtomicLong id = new AtomicLong();
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            id.set(userService.createUser(buildUserRequestDto("Uncommitted")).getId());
+            failCommit();
+        }));
+
+        assertThat(cacheManager.getCache("user:id").get(id.get())).isNull();
+        assertThat(userDao.findUserById(id.get())).isEmpty();
+    }
+
+    @Test
+    void createCard_rolledBack_isNotCachedAndKeepsUserCards() {
+        AtomicLong id = new AtomicLong();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            id.set(cardService.createCard(buildCardRequestDto()).getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(cacheManager.getCache("card:id").get(id.get())).isNull();
+        assertThat(cacheManager.getCache("user:cards").get(user.getId(), long[].class)).isEmpty();
+        assertThat(cardDao.findCardById(id.get())).isEmpty();
+    }
+
+    @Test
+    void createCard_committed_isCachedAndAddedToUserCards() {
+        CardResponseDto card = cardService.createCard(buildCardRequestDto());
+
+        assertThat(cacheManager.getCache("card:id").get(card.getId(), CardResponseDto.class))
+                .isEqualTo(card);
+        assertThat(cacheManager.getCache("user:cards").get(user.getId(), long[].class))
+                .containsExactly(card.getId());
+        assertThat(userService.getUserById(user.getId()).getCards()).containsExactly(card);
+    }
+
+    @Test
+    void deleteUser_failingCommit_keepsCachedUser() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(user.getId());
+            failCommit();
+        }));
+
+        assertThat(cacheManager.getCache("user:id").get(user.getId())).isNotNull();
+        assertThat(userDao.findUserById(user.getId())).isPresent();
+    }
+}
@@ -1,7 +1,7 @@
 package user_service.integration.testContainers;
 
-import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +12,6 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -100,6 +99,15 @@ public class CardTestContainerTests {
                 .build();
     }
 
+    // Tests run outside a test transaction so that cache writes happen after commit;
+    // the cards they created are deleted through the service to keep the caches in step
+    @AfterEach
+    public void afterEach() {
+        cardService.deleteCards(cardDao.findAll().stream()
+                .map(Card::getId)
+                .toList());
+    }
+
     @AfterAll
     static void afterAll() {
         postgres.stop();
@@ -117,7 +125,6 @@ public class CardTestContainerTests {
     }
 
     @Test
-    @Transactional
     void addNewCard_success() {
         CardResponseDto createdCard = cardService.createCard(cardRequestDto);
 
@@ -136,7 +143,6 @@ public class CardTestContainerTests {
     }
 
     @Test
-    @Transactional
     void addNewCardToNotExistingUser_failure() {
         cardRequestDto.setUserId(11111L);
 
@@ -148,7 +154,6 @@ public class CardTestContainerTests {
     }
 
     @Test
-    @Transactional
     void updateCard_withDuplicatedNumber_failure() {
         long id = cardService.createCard(cardRequestDto).getId();
         cardRequestDto.setNumber("0000111122223333");
@@ -159,40 +164,34 @@ public class CardTestContainerTests {
     }
 
     @Test
-    @Transactional
-    void newAddedCard_evictsUserCache_returnedWithNewUserServiceMethodCall_andCaches() {
+    void newAddedCard_updatesUserCardIds_returnedWithNewUserServiceMethodCall() {
         Cache userCache = cacheManager.getCache("user:id");
+        Cache userCardsCache = cacheManager.getCache("user:cards");
         assertNotNull(userCache);
         assertNotNull(userCache.get(userId, UserResponseDto.class));
 
         CardResponseDto createdCard = cardService.createCard(cardRequestDto);
-        assertNull(userCache.get(userId, UserResponseDto.class));
+        assertNotNull(userCache.get(userId, UserResponseDto.class));
 
         UserResponseDto userResponseDto = userService.getUserById(userId);
         List<CardResponseDto> cardResponseDtoList = userResponseDto.getCards();
         assertEquals(1, cardResponseDtoList.size());
         assertEquals(cardResponseDtoList.getFirst(), createdCard);
 
-        UserResponseDto cachedUserWithCards =
-                userCache.get(userId, UserResponseDto.class);
-        assertNotNull(cachedUserWithCards);
-        assertEquals(1, cachedUserWithCards.getCards().size());
-        assertEquals(cardResponseDtoList.getFirst(),
-                cachedUserWithCards.getCards().getFirst());
+        long[] cachedCardIds = userCardsCache.get(userId, long[].class);
+        assertNotNull(cachedCardIds);
+        assertEquals(1, cachedCardIds.length);
+        assertEquals(createdCard.getId(), cachedCardIds[0]);
     }
 
     @Test
-    @Transactional
-    void deleteCard_evictsUserCache_notReturnedWithNewUserServiceMethodCall
-            (@Autowired EntityManager entityManager) {
+    void deleteCard_updatesUserCardIds_notReturnedWithNewUserServiceMethodCall() {
         CardResponseDto createdCard = cardService.createCard(cardRequestDto);
 
         cardService.deleteCard(createdCard.getId());
-        entityManager.flush();
-        Cache userCache = cacheManager.getCache("user:id");
-        if (userCache != null) {
-            assertNull(userCache.get(userId, UserResponseDto.class));
-        }
+        long[] cachedCardIds = cacheManager.getCache("user:cards").get(userId, long[].class);
+        assertNotNull(cachedCardIds);
+        assertEquals(0, cachedCardIds.length);
 
         UserResponseDto userResponseDto = userService.getUserById(userId);
         List<CardResponseDto> cardResponseDtoList = userResponseDto.getCards();
@@ -201,16 +200,37 @@ public class CardTestContainerTests {
     }
 
     @Test
-    @Transactional
     void deletingUser_deletesAllUserCards_andCaches() {
+        long ownerId = userService.createUser(UserRequestDto.builder()
+                        .name("owner")
+                        .surname("owner")
+                        .email("owner@test.com")
+                        .birthDate(LocalDate.now().minusYears(1))
+                        .build())
+                .getId();
+        cardRequestDto.setUserId(ownerId);
         CardResponseDto createdCard = cardService.createCard(cardRequestDto);
 
-        userService.deleteUser(createdCard.getUserId());
+        userService.deleteUser(ownerId);
 
         assertFalse(cardDao.findCardById(createdCard.getId()).isPresent());
         Cache cardCache = cacheManager.getCache("card:id");
         if (cardCache != null) {
-            assertNull(cardCache.get(userId, UserResponseDto.class));
+            assertNull(cardCache.get(createdCard.getId(), CardResponseDto.class));
         }
     }
+
+    @Test
+    void deleteCards_deletesCards_andUpdatesUserCardIds() {
+        CardResponseDto createdCard = cardService.createCard(cardRequestDto);
+        userService.getUserById(userId);
+
+        List<Long> deletedIds = cardService.deleteCards(List.of(createdCard.getId()));
+
+        assertThat(deletedIds).containsExactly(createdCard.getId());
+        assertFalse(cardDao.findCardById(createdCard.getId()).isPresent());
+        long[] cachedCardIds = cacheManager.getCache("user:cards").get(userId, long[].class);
+        assertNotNull(cachedCardIds);
+        assertEquals(0, cachedCardIds.length);
+    }
 }
@@ -1,6 +1,7 @@
 package user_service.integration.testContainers;
 
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +12,6 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -77,6 +77,15 @@ public class UserTestContainersTests {
                 .build();
     }
 
+    // Tests run outside a test transaction so that cache writes happen after commit;
+    // the users they created are deleted through the service to keep the caches in step
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers(userDao.findAll().stream()
+                .map(User::getId)
+                .toList());
+    }
+
     @AfterAll
     static void afterAll() {
         postgres.stop();
@@ -99,7 +108,6 @@ public class UserTestContainersTests {
     }
 
     @Test
-    @Transactional
     void addNewUserTest_success() {
         UserResponseDto userResponseDto = userService.createUser(userRequestDto);
 
@@ -114,11 +122,10 @@ public class UserTestContainersTests {
         Cache cache = cacheManager.getCache("user:id");
 
         UserResponseDto cachedResponse = cache.get(userResponseDto.getId(), UserResponseDto.class);
-        assertThat(cachedResponse).isEqualTo(userResponseDto);
+        assertThat(cachedResponse).isEqualTo(userResponseDto.toBuilder().cards(null).build());
     }
 
     @Test
-    @Transactional
     void addNewUserTest_duplicateEmail() {
         UserResponseDto firstResponseDto = userService.createUser(userRequestDto);
         String previousName = userRequestDto.getName();
@@ -136,13 +143,12 @@ public class UserTestContainersTests {
         Cache cache = cacheManager.getCache("user:id");
         assertThat(cache).isNotNull();
         UserResponseDto cachedResponse = cache.get(firstResponseDto.getId(), UserResponseDto.class);
-        assertThat(cachedResponse).isEqualTo(firstResponseDto);
+        assertThat(cachedResponse).isEqualTo(firstResponseDto.toBuilder().cards(null).build());
 
         userRequestDto.setName(previousName);
     }
 
     @Test
-    @Transactional
     void getUsersByIdsTest_success() {
         UserResponseDto first = userService.createUser(userRequestDto);
         userRequestDto.setEmail("anotheremail@test.com");
@@ -155,23 +161,21 @@ public class UserTestContainersTests {
     }
 
     @Test
-    @Transactional
     void getUsersByEmailTest_success() {
         UserResponseDto savedUserDto = userService.createUser(userRequestDto);
 
-        UserResponseDto foundUserDto = userMapper.toResponseDto(
-                userDao.findUserByEmail(savedUserDto.getEmail()).orElseThrow());
+        UserResponseDto foundUserDto = userMapper.toResponseDtos(
+                userDao.findUserRowsByEmail(savedUserDto.getEmail())).getFirst();
         assertThat(foundUserDto).isNotNull();
         assertThat(foundUserDto).isEqualTo(savedUserDto);
 
         UserResponseDto cachedUserDto = cacheManager.getCache("user:id").
                 get(savedUserDto.getId(), UserResponseDto.class);
-        assertThat(cachedUserDto).isEqualTo(savedUserDto);
-        assertThat(cachedUserDto).isEqualTo(foundUserDto);
+        assertThat(cachedUserDto).isEqualTo(savedUserDto.toBuilder().cards(null).build());
+        assertThat(cachedUserDto).isEqualTo(foundUserDto.toBuilder().cards(null).build());
     }
 
     @Test
-    @Transactional
     void updateUserTest_success() {
         UserResponseDto createdUser = userService.createUser(userRequestDto);
 
@@ -190,12 +194,11 @@ public class UserTestContainersTests {
         Cache cache = cacheManager.getCache("user:id");
         assertThat(cache).isNotNull();
         UserResponseDto cachedResponse = cache.get(dbUser.getId(), UserResponseDto.class);
-        assertThat(cachedResponse).isEqualTo(updatedUserDto);
-        assertThat(cachedResponse).isNotEqualTo(createdUser);
+        assertThat(cachedResponse).isEqualTo(updatedUserDto.toBuilder().cards(null).build());
+        assertThat(cachedResponse).isNotEqualTo(createdUser.toBuilder().cards(null).build());
     }
 
     @Test
-    @Transactional
     void deleteUserTest_success() {
         UserResponseDto createdUser = userService.createUser(userRequestDto);
         userService.deleteUser(createdUser.getId());
@@ -208,4 +211,16 @@ public class UserTestContainersTests {
             assertThat(cachedResponse).isNull();
         }
     }
+
+    @Test
+    void deleteUsersTest_returnsOnlyDeletedIds() {
+        UserResponseDto createdUser = userService.createUser(userRequestDto);
+        long missingId = createdUser.getId() + 1_000;
+
+        List<Long> deletedIds = userService.deleteUsers(List.of(createdUser.getId(), missingId));
+
+        assertThat(deletedIds).containsExactly(createdUser.getId());
+        assertThat(userDao.findUserById(createdUser.getId())).isEmpty();
+        assertThat(cacheManager.getCache("user:id").get(createdUser.getId())).isNull();
+    }
 }
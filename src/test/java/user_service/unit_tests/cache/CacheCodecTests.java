@@ -0,0 +1,106 @@
+package user_service.unit_tests.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import user_service.cache.codec.CardIdsSerializer;
+import user_service.cache.codec.CardResponseDtoSerializer;
+import user_service.cache.codec.UserResponseDtoSerializer;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheCodecTests {
+    private final UserResponseDtoSerializer userSerializer = new UserResponseDtoSerializer();
+
+    private final CardResponseDtoSerializer cardSerializer = new CardResponseDtoSerializer();
+
+    private final CardIdsSerializer cardIdsSerializer = new CardIdsSerializer();
+
+    private CardResponseDto buildCard(long id) {
+        return CardResponseDto.builder()
+                .id(id)
+                .userId(1L)
+                .number("0011223344556677")
+                .holder("CARD HOLDER")
+                .expirationDate("03/27")
+                .build();
+    }
+
+    private UserResponseDto buildUser(List<CardResponseDto> cards) {
+        return UserResponseDto.builder()
+                .id(1L)
+                .name("Name")
+                .surname("Surname")
+                .email("email@email.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .cards(cards)
+                .build();
+    }
+
+    @Test
+    public void userWithCards_roundTrips() {
+        UserResponseDto user = buildUser(List.of(buildCard(1L), buildCard(2L)));
+
+        assertThat(userSerializer.deserialize(userSerializer.serialize(user))).isEqualTo(user);
+    }
+
+    @Test
+    public void userWithNullFields_roundTrips() {
+        UserResponseDto user = buildUser(null);
+        user.setBirthDate(null);
+        user.setSurname(null);
+
+        assertThat(userSerializer.deserialize(userSerializer.serialize(user))).isEqualTo(user);
+    }
+
+    @Test
+    public void card_roundTrips() {
+        CardResponseDto card = buildCard(Long.MAX_VALUE);
+
+        assertThat(cardSerializer.deserialize(cardSerializer.serialize(card))).isEqualTo(card);
+    }
+
+    @Test
+    public void cardIds_roundTrip() {
+        long[] cardIds = {1L, 300L, Long.MAX_VALUE};
+
+        assertThat(cardIdsSerializer.deserialize(cardIdsSerializer.serialize(cardIds)))
+                .containsExactly(cardIds);
+        assertThat(cardIdsSerializer.deserialize(cardIdsSerializer.serialize(new long[0]))).isEmpty();
+    }
+
+    @Test
+    public void binaryFormat_isSmallerThanJdkSerialization() {
+        UserResponseDto user = buildUser(List.of(buildCard(1L), buildCard(2L)));
+
+        assertThat(userSerializer.serialize(user).length)
+                .isLessThan(RedisSerializer.java().serialize(user).length / 4);
+    }
+
+    @Test
+    public void jdkSerializedEntry_isTreatedAsMiss() {
+        byte[] legacy = RedisSerializer.java().serialize(buildUser(List.of()));
+
+        assertThat(userSerializer.deserialize(legacy)).isNull();
+    }
+
+    @Test
+    public void entryWithUnknownVersion_isTreatedAsMiss() {
+        byte[] bytes = userSerializer.serialize(buildUser(List.of()));
+        bytes[1] = 99;
+
+        assertThat(userSerializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    public void userEntryWithEmbeddedCardsFormat_isTreatedAsMiss() {
+        byte[] bytes = userSerializer.serialize(buildUser(List.of()));
+        bytes[1] = 1;
+
+        assertThat(userSerializer.deserialize(bytes)).isNull();
+    }
+}
@@ -0,0 +1,97 @@
+package user_service.unit_tests.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.CacheWarmer;
+import user_service.config.CacheWarmupProperties;
+import user_service.exception.UsersNotFoundException;
+import user_service.service.CardService;
+import user_service.service.UserService;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheWarmerTests {
+    private final CacheAccessTracker cacheAccessTracker = mock(CacheAccessTracker.class);
+    private final UserService userService = mock(UserService.class);
+    private final CardService cardService = mock(CardService.class);
+    private final RedisConnection connection = mock(RedisConnection.class);
+    private final RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+    private final CacheWarmupProperties properties = new CacheWarmupProperties();
+
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void createCacheWarmer() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        properties.setBatchSize(2);
+        properties.setTopUsers(3);
+        properties.setTopCards(3);
+        properties.setMaxIdsPerSecond(1_000_000);
+        cacheWarmer = new CacheWarmer(properties, cacheAccessTracker, userService, cardService,
+                connectionFactory);
+    }
+
+    @Test
+    public void warmUp_loadsConfiguredAndHottestIdsInBatches() throws InterruptedException {
+        properties.setUserIds(List.of(10L));
+        when(cacheAccessTracker.topIds("user:id", 3)).thenReturn(List.of(1L, 10L, 2L));
+        when(cacheAccessTracker.topIds("card:id", 3)).thenReturn(List.of(5L));
+
+        assertThat(cacheWarmer.warmUpAsync()).isTrue();
+        awaitWarmUp();
+
+        verify(userService).getUsersByIds(List.of(10L, 1L));
+        verify(userService).getUsersByIds(List.of(2L));
+        verify(cardService).getCardsByIds(List.of(5L));
+        verify(stringCommands).set(any(byte[].class), any(byte[].class));
+        assertThat(cacheWarmer.getLastResult().users()).isEqualTo(3);
+        assertThat(cacheWarmer.getLastResult().cards()).isEqualTo(1);
+    }
+
+    @Test
+    public void warmUp_batchWithoutExistingUsers_continues() throws InterruptedException {
+        when(cacheAccessTracker.topIds("user:id", 3)).thenReturn(List.of(1L, 2L, 3L));
+        when(cacheAccessTracker.topIds("card:id", 3)).thenReturn(List.of());
+        when(userService.getUsersByIds(List.of(1L, 2L))).thenThrow(new UsersNotFoundException());
+
+        cacheWarmer.warmUpAsync();
+        awaitWarmUp();
+
+        verify(userService).getUsersByIds(List.of(3L));
+        verify(cardService, never()).getCardsByIds(any());
+        assertThat(cacheWarmer.getLastResult()).isNotNull();
+    }
+
+    @Test
+    public void warmUp_isRateLimited() throws InterruptedException {
+        properties.setMaxIdsPerSecond(20);
+        when(cacheAccessTracker.topIds("user:id", 3)).thenReturn(List.of(1L, 2L, 3L));
+        when(cacheAccessTracker.topIds("card:id", 3)).thenReturn(List.of());
+
+        cacheWarmer.warmUpAsync();
+        awaitWarmUp();
+
+        assertThat(cacheWarmer.getLastResult().duration()).isGreaterThanOrEqualTo(Duration.ofMillis(140));
+    }
+
+    private void awaitWarmUp() throws InterruptedException {
+        for (int i = 0; i < 100 && cacheWarmer.isRunning(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(cacheWarmer.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package user_service.unit_tests.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import user_service.cache.NegativeCache;
+import user_service.config.NegativeCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NegativeCacheTests {
+    private final RedisConnection connection = mock(RedisConnection.class);
+
+    private NegativeCache negativeCache;
+
+    @BeforeEach
+    void createNegativeCache() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        NegativeCacheProperties properties = new NegativeCacheProperties();
+        properties.setMaximumSize(100);
+        negativeCache = new NegativeCache(properties, connectionFactory,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(negativeCache, "register");
+    }
+
+    @Test
+    public void putMissing_isRememberedPerCache() {
+        negativeCache.putMissing("user:id", 1L, negativeCache.generation());
+
+        assertThat(negativeCache.isMissing("user:id", 1L)).isTrue();
+        assertThat(negativeCache.isMissing("card:id", 1L)).isFalse();
+    }
+
+    @Test
+    public void evict_forgetsIdAndNotifiesOtherNodes() {
+        negativeCache.putMissing("user:id", 1L, negativeCache.generation());
+
+        negativeCache.evict("user:id", 1L);
+
+        assertThat(negativeCache.isMissing("user:id", 1L)).isFalse();
+        verify(connection).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void putMissing_isSkipped_whenIdWasCreatedDuringLookup() {
+        long generation = negativeCache.generation();
+        negativeCache.evict("user:id", 1L);
+
+        negativeCache.putMissing("user:id", 1L, generation);
+
+        assertThat(negativeCache.isMissing("user:id", 1L)).isFalse();
+    }
+
+    @Test
+    public void evictInsideTransaction_notifiesOtherNodesOnlyAfterCommit() {
+        negativeCache.putMissing("user:id", 1L, negativeCache.generation());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            negativeCache.evict("user:id", 1L);
+            assertThat(negativeCache.isMissing("user:id", 1L)).isFalse();
+            verify(connection, never()).publish(any(byte[].class), any(byte[].class));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(connection).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void invalidationMessage_forgetsIds() {
+        negativeCache.putMissing("user:id", 1L, negativeCache.generation());
+        negativeCache.putMissing("user:id", 2L, negativeCache.generation());
+
+        negativeCache.onMessage(new DefaultMessage("cache:negative".getBytes(StandardCharsets.UTF_8),
+                "user:id::1\nuser:id::2".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(negativeCache.isMissing("user:id", 1L)).isFalse();
+        assertThat(negativeCache.isMissing("user:id", 2L)).isFalse();
+    }
+}
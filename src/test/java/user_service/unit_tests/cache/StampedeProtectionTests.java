@@ -0,0 +1,115 @@
+package user_service.unit_tests.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.cache.JitteredTtlFunction;
+import user_service.cache.SingleFlight;
+import user_service.config.StampedeProtectionProperties;
+import user_service.exception.UserNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class StampedeProtectionTests {
+    @Test
+    public void singleFlight_concurrentLoadsOfSameKey_runLoaderOnce() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.load("user:1", () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "user";
+            }));
+            loaderStarted.await();
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                followers.add(executor.submit(() -> singleFlight.load("user:1", () -> {
+                    loads.incrementAndGet();
+                    return "reloaded user";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(leader.get()).isEqualTo("user");
+            for (Future<String> follower : followers) {
+                assertThat(follower.get()).isEqualTo("user");
+            }
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void singleFlight_loaderFailure_isRethrownAndNotRemembered() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(UserNotFoundException.class, () -> singleFlight.load("user:1", () -> {
+            throw new UserNotFoundException(1L);
+        }));
+        assertThat(singleFlight.load("user:1", () -> "user")).isEqualTo("user");
+    }
+
+    @Test
+    public void jitteredTtl_staysWithinConfiguredFraction() {
+        JitteredTtlFunction ttlFunction = new JitteredTtlFunction(Duration.ofMinutes(10), 0.1);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(ttlFunction.getTimeToLive("key", "value"))
+                    .isBetween(Duration.ofMinutes(9), Duration.ofMinutes(10));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void coordinator_refreshesEntryItLoadedBeforeExpiry() {
+        StampedeProtectionProperties properties = new StampedeProtectionProperties();
+        properties.setTtlJitter(0);
+        properties.setEarlyExpirationBeta(1e12);
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(properties,
+                mock(ObjectProvider.class), new SimpleMeterRegistry(), Duration.ofSeconds(10));
+        AtomicInteger loads = new AtomicInteger();
+
+        coordinator.get("user:id", 1L, () -> null, () -> "user" + loads.incrementAndGet());
+        String refreshed = coordinator.get("user:id", 1L, () -> "cached user",
+                () -> "user" + loads.incrementAndGet());
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(refreshed).isEqualTo("user2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void coordinator_withoutLoadHistory_servesCachedValue() {
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(new StampedeProtectionProperties(),
+                mock(ObjectProvider.class), new SimpleMeterRegistry(), Duration.ofSeconds(10));
+
+        String value = coordinator.get("user:id", 1L, () -> "cached user", () -> "loaded user");
+
+        assertThat(value).isEqualTo("cached user");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
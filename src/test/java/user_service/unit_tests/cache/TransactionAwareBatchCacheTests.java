@@ -0,0 +1,90 @@
+package user_service.unit_tests.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import user_service.cache.TransactionAwareBatchCache;
+import user_service.cache.TransactionAwareBatchCacheManager;
+import user_service.cache.WriteBehindCacheManager;
+import user_service.config.WriteBehindProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionAwareBatchCacheTests {
+    private final ConcurrentMapCache target = new ConcurrentMapCache("user:id");
+
+    private final TransactionAwareBatchCache cache = new TransactionAwareBatchCache(target);
+
+    @BeforeEach
+    void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void writes_areAppliedAfterCommit() {
+        target.put(3L, "stale user");
+
+        cache.put(1L, "user");
+        cache.putAll(Map.of(2L, "another user"));
+        cache.evict(3L);
+        assertThat(target.get(1L)).isNull();
+        assertThat(target.get(3L)).isNotNull();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertThat(cache.getAll(List.of(1L, 2L, 3L))).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    public void writes_areDroppedOnRollback() {
+        target.put(3L, "user");
+
+        cache.putAll(Map.of(1L, "uncommitted user"));
+        cache.evict(3L);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(target.get(1L)).isNull();
+        assertThat(target.get(3L)).isNotNull();
+    }
+
+    @Test
+    public void writesOutsideTransaction_areAppliedImmediately() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cache.putAll(Map.of(1L, "user"));
+
+        assertThat(target.get(1L)).isNotNull();
+    }
+
+    @Test
+    public void managerDestroy_flushesWrappedWriteBehindQueue() throws Exception {
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager();
+        TransactionAwareBatchCacheManager cacheManager = new TransactionAwareBatchCacheManager(
+                new WriteBehindCacheManager(redis, new WriteBehindProperties(),
+                        new SimpleMeterRegistry(), false));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cacheManager.getCache("user:id").put(1L, "user");
+        cacheManager.destroy();
+
+        assertThat(redis.getCache("user:id").get(1L)).isNotNull();
+    }
+}
@@ -0,0 +1,192 @@
+package user_service.unit_tests.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import user_service.cache.BatchCache;
+import user_service.cache.CacheInvalidationMessage;
+import user_service.cache.CacheLookupMetrics;
+import user_service.cache.TwoLevelCacheManager;
+import user_service.config.NearCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TwoLevelCacheTests {
+    private ConcurrentMapCacheManager remoteCacheManager;
+
+    private RedisConnection connection;
+
+    private TwoLevelCacheManager cacheManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createCacheManager() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, connectionFactory,
+                new NearCacheProperties(), meterRegistry);
+    }
+
+    private DefaultMessage invalidationFrom(String origin, String cacheName, Object key) {
+        byte[] body = new CacheInvalidationMessage(origin, cacheName, List.of(key)).encode();
+        return new DefaultMessage("cache:invalidation".getBytes(StandardCharsets.UTF_8), body);
+    }
+
+    @Test
+    public void get_servesFromLocalTier_afterRemoteHit() {
+        remoteCacheManager.getCache("user:id").put(1L, "cached user");
+        Cache cache = cacheManager.getCache("user:id");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("cached user");
+        remoteCacheManager.getCache("user:id").evict(1L);
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("cached user");
+    }
+
+    @Test
+    public void get_countsLocalHitsAndMisses() {
+        remoteCacheManager.getCache("user:id").put(1L, "cached user");
+        Cache cache = cacheManager.getCache("user:id");
+
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertThat(localLookups("user:id", "hit")).isEqualTo(1.0);
+        assertThat(localLookups("user:id", "miss")).isEqualTo(2.0);
+    }
+
+    private double localLookups(String cacheName, String result) {
+        return meterRegistry.get(CacheLookupMetrics.METRIC_NAME)
+                .tag("cache", cacheName)
+                .tag("tier", "local")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    public void put_writesBothTiers_andPublishesInvalidation() {
+        Cache cache = cacheManager.getCache("card:id");
+
+        cache.put(1L, "card");
+
+        assertThat(remoteCacheManager.getCache("card:id").get(1L).get()).isEqualTo("card");
+        assertThat(cache.get(1L).get()).isEqualTo("card");
+        verify(connection, times(1)).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void evict_removesBothTiers() {
+        Cache cache = cacheManager.getCache("user:id");
+        cache.put(1L, "cached user");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(remoteCacheManager.getCache("user:id").get(1L)).isNull();
+    }
+
+    @Test
+    public void invalidationFromAnotherNode_evictsLocalTierOnly() {
+        Cache cache = cacheManager.getCache("user:id");
+        cache.put(1L, "cached user");
+        remoteCacheManager.getCache("user:id").put(1L, "updated user");
+
+        cacheManager.onMessage(invalidationFrom("another-node", "user:id", 1L), null);
+
+        assertThat(cache.get(1L).get()).isEqualTo("updated user");
+    }
+
+    @Test
+    public void cacheNotConfiguredForNearCaching_isReturnedAsIs() {
+        assertThat(cacheManager.getCache("other"))
+                .isSameAs(remoteCacheManager.getCache("other"));
+    }
+
+    @Test
+    public void getAll_combinesLocalAndRemoteHits() {
+        BatchCache cache = (BatchCache) cacheManager.getCache("user:id");
+        cacheManager.getCache("user:id").put(1L, "local user");
+        remoteCacheManager.getCache("user:id").put(2L, "remote user");
+
+        Map<Object, Object> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(found).containsOnly(Map.entry(1L, "local user"), Map.entry(2L, "remote user"));
+    }
+
+    @Test
+    public void putAll_writesBothTiers_withSingleInvalidation() {
+        BatchCache cache = (BatchCache) cacheManager.getCache("card:id");
+
+        cache.putAll(Map.of(1L, "first", 2L, "second"));
+
+        assertThat(remoteCacheManager.getCache("card:id").get(2L).get()).isEqualTo("second");
+        assertThat(cache.getAll(List.of(1L, 2L))).hasSize(2);
+        verify(connection, times(1)).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void evictAll_clearsBothTiers_withSingleInvalidation() {
+        BatchCache cache = (BatchCache) cacheManager.getCache("card:id");
+        cacheManager.getCache("card:id").put(1L, "first");
+        cacheManager.getCache("card:id").put(2L, "second");
+
+        cache.evictAll(List.of(1L, 2L));
+
+        assertThat(remoteCacheManager.getCache("card:id").get(1L)).isNull();
+        assertThat(cache.getAll(List.of(1L, 2L))).isEmpty();
+        verify(connection, times(3)).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void populateAll_writesBothTiers_withoutInvalidation() {
+        BatchCache cache = (BatchCache) cacheManager.getCache("card:id");
+
+        cache.populateAll(Map.of(1L, "first", 2L, "second"));
+
+        assertThat(remoteCacheManager.getCache("card:id").get(2L).get()).isEqualTo("second");
+        assertThat(cache.getAll(List.of(1L, 2L))).hasSize(2);
+        verify(connection, never()).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void invalidationMessage_roundTripsLongAndStringKeys() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage("node", "user:email",
+                List.of(1L, "email@email.com"));
+
+        assertThat(CacheInvalidationMessage.decode(message.encode())).isEqualTo(message);
+        assertThat(CacheInvalidationMessage.decode(
+                new CacheInvalidationMessage("node", "user:id", null).encode()).keys()).isNull();
+    }
+
+    @Test
+    public void malformedInvalidation_isIgnored() {
+        Cache cache = cacheManager.getCache("user:id");
+        cache.put(1L, "cached user");
+
+        cacheManager.onMessage(new DefaultMessage("cache:invalidation".getBytes(StandardCharsets.UTF_8),
+                new byte[]{5, 'n', 'o', 'd', 'e', 8, 'u', 's', 'e', 'r', ':', 'i', 'd', 2, 9}), null);
+
+        assertThat(cache.get(1L).get()).isEqualTo("cached user");
+    }
+}
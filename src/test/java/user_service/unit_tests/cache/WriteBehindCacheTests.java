@@ -0,0 +1,177 @@
+package user_service.unit_tests.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import user_service.cache.WriteBehindCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WriteBehindCacheTests {
+    private final Counter overflows = Counter.builder("overflows").register(new SimpleMeterRegistry());
+
+    private final RecordingCache delegate = new RecordingCache();
+
+    private WriteBehindCache cache;
+
+    @AfterEach
+    void shutdown() {
+        delegate.release.countDown();
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void put_isServedLocallyAndWrittenInBackground() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 100, 10, overflows, true);
+        delegate.release.countDown();
+
+        cache.put(1L, "user");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("user");
+        awaitUntil(() -> delegate.get(1L) != null);
+        assertThat(delegate.get(1L).get()).isEqualTo("user");
+    }
+
+    @Test
+    public void pendingWritesForSameKey_areCoalesced() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 100, 10, overflows, true);
+        cache.put(0L, "blocks the writer");
+        awaitUntil(() -> delegate.blocked);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(1L, "user v" + i);
+        }
+        delegate.release.countDown();
+
+        awaitUntil(() -> delegate.get(1L) != null);
+        assertThat(delegate.get(1L).get()).isEqualTo("user v99");
+        assertThat(delegate.writes).containsExactly(0L, 1L);
+    }
+
+    @Test
+    public void evictAfterPut_winsOverThePendingPut() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 100, 10, overflows, true);
+        cache.put(0L, "blocks the writer");
+        awaitUntil(() -> delegate.blocked);
+
+        cache.put(1L, "user");
+        cache.evict(1L);
+        assertThat(cache.get(1L)).isNull();
+        delegate.release.countDown();
+        cache.put(2L, "marker");
+
+        awaitUntil(() -> delegate.get(2L) != null);
+        assertThat(delegate.get(1L)).isNull();
+    }
+
+    @Test
+    public void putInsideTransaction_isQueuedOnlyAfterCommit() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 100, 10, overflows, true);
+        delegate.release.countDown();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(1L, "rolled back user");
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cache.get(1L)).isNull();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(2L, "committed user");
+            assertThat(cache.get(2L)).isNull();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        awaitUntil(() -> delegate.get(2L) != null);
+        assertThat(delegate.get(1L)).isNull();
+    }
+
+    @Test
+    public void putInsideTransaction_isQueuedImmediately_whenOuterCacheDefers() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 100, 10, overflows, false);
+        delegate.release.countDown();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(1L, "user");
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        awaitUntil(() -> delegate.get(1L) != null);
+    }
+
+    @Test
+    public void fullQueue_waitsForWorker_andKeepsLatestValue() throws InterruptedException {
+        cache = new WriteBehindCache(delegate, 1, 10, overflows, true);
+        cache.put(0L, "blocks the writer");
+        awaitUntil(() -> delegate.blocked);
+
+        cache.put(1L, "queued user");
+        Thread overflowing = Thread.ofVirtual().start(() -> cache.put(2L, "overflowing user"));
+        awaitUntil(() -> overflows.count() == 1.0);
+        cache.put(1L, "updated user");
+
+        assertThat(overflowing.isAlive()).isTrue();
+        assertThat(delegate.get(2L)).isNull();
+        delegate.release.countDown();
+        overflowing.join(5_000);
+
+        awaitUntil(() -> delegate.get(2L) != null);
+        assertThat(delegate.get(1L).get()).isEqualTo("updated user");
+        assertThat(delegate.writes).containsExactly(0L, 1L, 2L);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static class RecordingCache extends ConcurrentMapCache {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Object> writes = new ArrayList<>();
+        private volatile boolean blocked;
+
+        RecordingCache() {
+            super("user:id");
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (!Thread.currentThread().getName().startsWith("cache-write-behind")) {
+                super.put(key, value);
+                return;
+            }
+            blocked = true;
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writes.add(key);
+            super.put(key, value);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package user_service.unit_tests.card;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.NegativeCache;
 import user_service.dao.CardDao;
 import user_service.dao.UserDao;
 import user_service.dto.card.CardRequestDto;
+import user_service.dto.card.CardResponseDto;
 import user_service.entity.Card;
 import user_service.entity.User;
 
@@ -20,6 +25,12 @@ public class CardServiceBaseTests {
     @MockitoBean
     protected UserDao userDao;
 
+    @MockitoBean
+    protected NegativeCache negativeCache;
+
+    @MockitoBean
+    protected CacheAccessTracker cacheAccessTracker;
+
     protected Card card;
 
     protected CardRequestDto cardRequestDto;
@@ -43,6 +54,16 @@ public class CardServiceBaseTests {
                 .build();
     }
 
+    protected CardResponseDto toResponseDto(Card card) {
+        return new CardResponseDto(card.getId(), card.getUser().getId(), card.getNumber(),
+                card.getHolder(), card.getExpirationDate());
+    }
+
+    protected DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("duplicate key value violates unique constraint",
+                new ConstraintViolationException("duplicate key", null, constraintName));
+    }
+
     protected CardRequestDto buildCardRequestDto() {
         return CardRequestDto.builder()
                 .userId(1L)
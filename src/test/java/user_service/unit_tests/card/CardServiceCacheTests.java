@@ -1,6 +1,7 @@
 package user_service.unit_tests.card;
 
 import org.junit.jupiter.api.AfterEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -10,13 +11,21 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.config.BatchLookupProperties;
+import user_service.config.StampedeProtectionProperties;
+import user_service.dao.BatchingCardLookup;
+import user_service.dao.ParallelIdLookup;
+import user_service.dto.card.CardOwnerRow;
 import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserResponseDto;
 import user_service.entity.Card;
 import user_service.entity.User;
 import user_service.mapper.CardMapperImpl;
 import user_service.mapper.UserMapperImpl;
 import user_service.service.CardService;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,7 +39,13 @@ import static org.mockito.Mockito.when;
 @SpringBootTest(classes = {CardService.class,
         UserMapperImpl.class,
         CardMapperImpl.class,
-        CardServiceCacheTests.CacheTestConfig.class})
+        CardServiceCacheTests.CacheTestConfig.class,
+        CacheLoadCoordinator.class,
+        StampedeProtectionProperties.class,
+        ParallelIdLookup.class,
+        BatchingCardLookup.class,
+        BatchLookupProperties.class,
+        SimpleMeterRegistry.class})
 public class CardServiceCacheTests extends CardServiceBaseTests {
     @Configuration
     @EnableCaching
@@ -50,12 +65,22 @@ public class CardServiceCacheTests extends CardServiceBaseTests {
     @AfterEach
     void clearCache() {
         cacheManager.getCache("user:id").clear();
+        cacheManager.getCache("user:cards").clear();
         cacheManager.getCache("card:id").clear();
     }
 
+    private void cacheUser(long id, long... cardIds) {
+        cacheManager.getCache("user:id").put(id, UserResponseDto.builder().id(id).build());
+        cacheManager.getCache("user:cards").put(id, cardIds);
+    }
+
+    private long[] cachedCardIds(long userId) {
+        return cacheManager.getCache("user:cards").get(userId, long[].class);
+    }
+
     @Test
     public void getCardById_shouldCacheResult() {
-        when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
+        when(cardDao.findCardResponseById(1L)).thenReturn(Optional.of(toResponseDto(card)));
 
         CardResponseDto responseDto = cardService.getCardById(1L);
         Cache cardCache = cacheManager.getCache("card:id");
@@ -68,7 +93,7 @@ public class CardServiceCacheTests extends CardServiceBaseTests {
 
     @Test
     public void getCardById_shouldUseCache() {
-        when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
+        when(cardDao.findCardResponseById(1L)).thenReturn(Optional.of(toResponseDto(card)));
 
         CardResponseDto responseDto = cardService.getCardById(1L);
         CardResponseDto responseDto2 = cardService.getCardById(1L);
@@ -76,13 +101,14 @@ public class CardServiceCacheTests extends CardServiceBaseTests {
         assertThat(responseDto).isNotNull();
         assertThat(responseDto2).isNotNull();
         assertThat(responseDto).isEqualTo(responseDto2);
-        verify(cardDao, times(1)).findCardById(1L);
+        verify(cardDao, times(1)).findCardResponseById(1L);
     }
 
     @Test
     public void createCard_shouldCacheResult() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
         CardResponseDto responseDtoAfterCreate = cardService.createCard(cardRequestDto);
         Cache cardCache = cacheManager.getCache("card:id");
@@ -95,8 +121,9 @@ public class CardServiceCacheTests extends CardServiceBaseTests {
 
     @Test
     public void updateCard_shouldUpdateCacheResult() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
         CardResponseDto responseDtoAfterCreate = cardService.createCard(cardRequestDto);
         long id = responseDtoAfterCreate.getId();
@@ -124,68 +151,124 @@ public class CardServiceCacheTests extends CardServiceBaseTests {
     }
 
     @Test
-    public void createCard_evictsUserCacheResult() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+    public void createCard_addsCardToCachedCardIds() {
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
-        cacheManager.getCache("card:id").put(1L, "Some mock data");
+        cacheUser(1L, 5L);
         cardService.createCard(cardRequestDto);
 
-        Cache userCache = cacheManager.getCache("user:id");
-        if (userCache != null) {
-            assertThat(userCache.get(1L)).isNull();
-        }
+        assertThat(cachedCardIds(1L)).containsExactly(1L, 5L);
+        assertThat(cacheManager.getCache("user:id").get(1L)).isNotNull();
     }
 
     @Test
-    public void updateCard_evictsUserCacheResult() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+    public void createCard_leavesUncachedCardIdsToNextRead() {
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
+
+        cardService.createCard(cardRequestDto);
+
+        assertThat(cacheManager.getCache("user:cards").get(1L)).isNull();
+    }
+
+    @Test
+    public void updateCard_keepsUserCacheEntries() {
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
 
         cacheManager.getCache("card:id").put(1L, "Some mock data");
+        cacheUser(1L, 1L);
         cardRequestDto.setNumber("7766554433221100");
         cardService.updateCard(cardRequestDto, 1L);
 
-        Cache userCache = cacheManager.getCache("user:id");
-        if (userCache != null) {
-            assertThat(userCache.get(1L)).isNull();
-        }
+        assertThat(cachedCardIds(1L)).containsExactly(1L);
+        assertThat(cacheManager.getCache("user:id").get(1L)).isNotNull();
     }
 
     @Test
-    public void updateCardUser_evictsBothUsersCacheResult() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+    public void updateCardUser_movesCardBetweenCachedCardIds() {
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
 
         User cardUser2 = buildUser();
         cardUser2.setId(2L);
-        when(userDao.findUserById(2L)).thenReturn(Optional.of(cardUser2));
+        when(userDao.existsById(2L)).thenReturn(true);
+        when(userDao.getReferenceById(2L)).thenReturn(cardUser2);
 
         cacheManager.getCache("card:id").put(1L, "Some mock data");
+        cacheUser(1L, 1L);
         cacheManager.getCache("card:id").put(2L, "Some other mock data");
+        cacheUser(2L, 2L);
         cardRequestDto.setUserId(2L);
         cardService.updateCard(cardRequestDto, 1L);
 
-        Cache userCache = cacheManager.getCache("user:id");
-        if (userCache != null) {
-            assertThat(userCache.get(1L)).isNull();
-            assertThat(userCache.get(2L)).isNull();
-        }
+        assertThat(cachedCardIds(1L)).isEmpty();
+        assertThat(cachedCardIds(2L)).containsExactly(1L, 2L);
+        assertThat(cacheManager.getCache("user:id").get(1L)).isNotNull();
+        assertThat(cacheManager.getCache("user:id").get(2L)).isNotNull();
     }
 
     @Test
-    public void deleteCard_evictsUserCacheResult() {
+    public void deleteCard_removesCardFromCachedCardIds() {
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
         doNothing().when(cardDao).delete(any(Card.class));
 
         cacheManager.getCache("card:id").put(1L, "Some mock data");
+        cacheUser(1L, 1L, 3L);
         cardService.deleteCard(1L);
 
-        Cache userCache = cacheManager.getCache("user:id");
-        if (userCache != null) {
-            assertThat(userCache.get(1L)).isNull();
-        }
+        assertThat(cachedCardIds(1L)).containsExactly(3L);
+        assertThat(cacheManager.getCache("user:id").get(1L)).isNotNull();
+    }
+
+    @Test
+    public void getCardsByIds_loadsOnlyMissingCards_andCachesThem() {
+        Card card2 = buildCard();
+        card2.setId(2L);
+        when(cardDao.findCardResponseById(1L)).thenReturn(Optional.of(toResponseDto(card)));
+        when(cardDao.findCardResponsesByIdIn(List.of(2L))).thenReturn(List.of(toResponseDto(card2)));
+
+        cardService.getCardById(1L);
+        List<CardResponseDto> cards = cardService.getCardsByIds(List.of(2L, 1L));
+
+        verify(cardDao, times(1)).findCardResponsesByIdIn(List.of(2L));
+        assertThat(cards).extracting(CardResponseDto::getId).containsExactly(2L, 1L);
+        assertThat(cacheManager.getCache("card:id").get(2L)).isNotNull();
+    }
+
+    @Test
+    public void deleteCards_evictsDeletedCardsAndUpdatesTheirUsers() {
+        cacheManager.getCache("card:id").put(1L, toResponseDto(card));
+        cacheManager.getCache("card:id").put(2L, toResponseDto(card));
+        cacheUser(1L, 1L);
+        when(cardDao.deleteCardsByIdIn(new Long[]{1L, 2L})).thenReturn(List.of(cardOwnerRow(1L, 1L)));
+
+        List<Long> deletedIds = cardService.deleteCards(List.of(1L, 2L, 1L));
+
+        assertThat(deletedIds).containsExactly(1L);
+        assertThat(cacheManager.getCache("card:id").get(1L)).isNull();
+        assertThat(cacheManager.getCache("card:id").get(2L)).isNotNull();
+        assertThat(cachedCardIds(1L)).isEmpty();
+    }
+
+    private CardOwnerRow cardOwnerRow(Long id, Long userId) {
+        return new CardOwnerRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+        };
     }
 }
@@ -1,11 +1,16 @@
 package user_service.unit_tests.card;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.config.BatchLookupProperties;
+import user_service.config.StampedeProtectionProperties;
+import user_service.dao.BatchingCardLookup;
+import user_service.dao.ParallelIdLookup;
 import user_service.dao.UserDao;
 import user_service.dto.card.CardRequestDto;
 import user_service.dto.card.CardResponseDto;
@@ -13,6 +18,7 @@ import user_service.entity.Card;
 import user_service.exception.CardNotFoundException;
 import user_service.exception.CardNumberNotUniqueException;
 import user_service.exception.CardsNotFoundException;
+import user_service.exception.UniqueConstraints;
 import user_service.exception.UserNotFoundException;
 import user_service.mapper.CardMapperImpl;
 import user_service.service.CardService;
@@ -25,13 +31,19 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(classes = {CardService.class,
-        CardMapperImpl.class,})
+        CardMapperImpl.class,
+        CacheLoadCoordinator.class,
+        StampedeProtectionProperties.class,
+        ParallelIdLookup.class,
+        BatchingCardLookup.class,
+        BatchLookupProperties.class,
+        SimpleMeterRegistry.class})
 public class CardServiceLayerUnitTests extends CardServiceBaseTests {
     @Autowired
     private CardService cardService;
@@ -48,28 +60,26 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
                 && request.getExpirationDate().equals(response.getExpirationDate());
     }
 
-    private void ignoreUserCacheEvict() {
-        Cache mockedCache = mock(Cache.class);
-        when(cacheManager.getCache("user:id")).thenReturn(mockedCache);
-        doNothing().when(mockedCache).evict(any(Long.class));
-    }
-
     @Test
     public void createCard_success() {
-        given(cardDao.save(any(Card.class))).willReturn(card);
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        given(cardDao.saveAndFlush(any(Card.class))).willReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
         CardResponseDto cardResponseDto = cardService.createCard(cardRequestDto);
 
         assertThat(cardResponseDto).isNotNull();
         assertThat(requestResponseEquals(cardRequestDto, cardResponseDto)).isTrue();
+        verify(negativeCache).evict("card:id", cardResponseDto.getId());
+        verify(userDao, never()).findUserById(any());
     }
 
     @Test
     public void createCard_cardNumberNotUnique_throwsException() {
-        when(cardDao.findCardByNumber("0011223344556677"))
-                .thenReturn(Optional.of(card));
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        when(cardDao.saveAndFlush(any(Card.class)))
+                .thenThrow(uniqueViolation(UniqueConstraints.CARD_INFO_NUMBER));
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
         assertThrows(CardNumberNotUniqueException.class,
                 () -> cardService.createCard(cardRequestDto));
@@ -77,8 +87,9 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void createCard_cardOwnerUserIdNotExists_throwsException() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
-        when(cardDao.save(any(Card.class))).thenReturn(card);
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
         cardRequestDto.setUserId(12345L);
 
         assertThrows(UserNotFoundException.class,
@@ -87,7 +98,7 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void getCardById_success() {
-        when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
+        when(cardDao.findCardResponseById(1L)).thenReturn(Optional.of(toResponseDto(card)));
 
         CardResponseDto cardResponseDto = cardService.getCardById(1L);
 
@@ -101,6 +112,15 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
         assertThrows(CardNotFoundException.class,
                 () -> cardService.getCardById(12345L),
                 "Card with id " + 12345L + " does not exist");
+        verify(negativeCache).putMissing("card:id", 12345L, 0L);
+    }
+
+    @Test
+    public void getCardById_knownMissingId_skipsDatabase() {
+        when(negativeCache.isMissing("card:id", 12345L)).thenReturn(true);
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardById(12345L));
+        verify(cardDao, never()).findCardResponseById(any());
     }
 
     @Test
@@ -108,7 +128,8 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
         Card card2 = buildCard();
         card2.setId(2L);
 
-        when(cardDao.findCardsByIdIn(List.of(1L, 2L))).thenReturn(List.of(card, card2));
+        when(cardDao.findCardResponsesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(toResponseDto(card), toResponseDto(card2)));
 
         List<CardResponseDto> cards = cardService.getCardsByIds(List.of(1L, 2L));
 
@@ -122,7 +143,8 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void getAllCardsByIdsTest_notAllCardsWithIdsExist_success() {
-        given(cardDao.findCardsByIdIn(List.of(1L, 2L))).willReturn(List.of(card));
+        given(cardDao.findCardResponsesByIdIn(List.of(1L, 2L)))
+                .willReturn(List.of(toResponseDto(card)));
 
         List<CardResponseDto> cards = cardService.getCardsByIds(List.of(1L, 2L));
 
@@ -139,9 +161,10 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void updateCard_success() {
-        when(cardDao.save(any(Card.class))).thenReturn(card);
+        when(cardDao.saveAndFlush(any(Card.class))).thenReturn(card);
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
 
         CardResponseDto createdResponseDto = cardService.createCard(cardRequestDto);
         cardRequestDto.setHolder("Another Holder");
@@ -163,11 +186,10 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void updateCard_cardOwnerUserIdNotExists_throwsException() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
 
-        ignoreUserCacheEvict();
-
         cardRequestDto.setUserId(12345L);
         assertThrows(UserNotFoundException.class,
                 () -> cardService.updateCard(cardRequestDto, 1L));
@@ -175,9 +197,10 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
 
     @Test
     public void updateCard_cardNumberNotUnique_throwsException() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(cardUser));
-        when(cardDao.findCardByNumber("0011223344556677"))
-                .thenReturn(Optional.ofNullable(card));
+        when(userDao.existsById(1L)).thenReturn(true);
+        when(userDao.getReferenceById(1L)).thenReturn(cardUser);
+        when(cardDao.saveAndFlush(any(Card.class)))
+                .thenThrow(uniqueViolation(UniqueConstraints.CARD_INFO_NUMBER));
 
         cardRequestDto.setNumber("0011223344556677");
         Card card2 = buildCard();
@@ -194,8 +217,6 @@ public class CardServiceLayerUnitTests extends CardServiceBaseTests {
         when(cardDao.findCardById(1L)).thenReturn(Optional.ofNullable(card));
         doNothing().when(cardDao).delete(any(Card.class));
 
-        ignoreUserCacheEvict();
-
         cardService.deleteCard(1L);
 
         verify(cardDao, times(1)).delete(any(Card.class));
@@ -0,0 +1,79 @@
+package user_service.unit_tests.concurrency;
+
+import org.junit.jupiter.api.Test;
+import user_service.dao.BatchingLoader;
+import user_service.exception.UsersNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchingLoaderTests {
+    @Test
+    public void load_concurrentCallers_shareBatchQueries() throws Exception {
+        ConcurrentLinkedQueue<List<Long>> batches = new ConcurrentLinkedQueue<>();
+        BatchingLoader<String> loader = new BatchingLoader<>(ids -> {
+            batches.add(ids);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "user" + id));
+        }, Duration.ofMillis(50), 1_000);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id = 1; id <= 100; id++) {
+                long userId = id % 50 + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(userId);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo("user" + ((i + 1) % 50 + 1));
+            }
+        }
+        assertThat(batches.size()).isLessThan(10);
+        assertThat(batches.stream().mapToInt(List::size).sum()).isLessThan(100);
+    }
+
+    @Test
+    public void load_fullBatch_isDispatchedBeforeMaxWait() throws Exception {
+        BatchingLoader<String> loader = new BatchingLoader<>(ids -> ids.stream()
+                .collect(Collectors.toMap(Function.identity(), id -> "card" + id)), Duration.ofSeconds(10), 2);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> loader.load(1L));
+            Future<String> second = executor.submit(() -> loader.load(2L));
+
+            assertThat(first.get()).isEqualTo("card1");
+            assertThat(second.get()).isEqualTo("card2");
+        }
+    }
+
+    @Test
+    public void load_missingId_returnsNull() {
+        BatchingLoader<String> loader = new BatchingLoader<>(ids -> Map.of(), Duration.ZERO, 10);
+
+        assertThat(loader.load(1L)).isNull();
+    }
+
+    @Test
+    public void load_batchFailure_isRethrown() {
+        BatchingLoader<String> loader = new BatchingLoader<>(ids -> {
+            throw new UsersNotFoundException();
+        }, Duration.ZERO, 10);
+
+        assertThrows(UsersNotFoundException.class, () -> loader.load(1L));
+    }
+}
@@ -0,0 +1,165 @@
+package user_service.unit_tests.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.cache.NegativeCache;
+import user_service.config.BatchLookupProperties;
+import user_service.config.StampedeProtectionProperties;
+import user_service.dao.BatchingCardLookup;
+import user_service.dao.BatchingUserLookup;
+import user_service.dao.CardDao;
+import user_service.dao.ParallelIdLookup;
+import user_service.dao.UserBatchDao;
+import user_service.dao.UserDao;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserCardRow;
+import user_service.mapper.CardMapperImpl;
+import user_service.mapper.UserMapperImpl;
+import user_service.service.CardService;
+import user_service.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+// The loader's batch query runs on the thread of the first caller in the batch, so a
+// transaction opened by getUserById or getCardById would be visible there and every
+// parked caller would hold a connection while waiting.
+@SpringBootTest(classes = {UserService.class,
+        CardService.class,
+        UserMapperImpl.class,
+        CardMapperImpl.class,
+        LocalValidatorFactoryBean.class,
+        BatchingLookupTransactionTests.TransactionTestConfig.class,
+        CacheLoadCoordinator.class,
+        StampedeProtectionProperties.class,
+        ParallelIdLookup.class,
+        BatchingUserLookup.class,
+        BatchingCardLookup.class,
+        SimpleMeterRegistry.class})
+public class BatchingLookupTransactionTests {
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        BatchLookupProperties batchLookupProperties() {
+            BatchLookupProperties properties = new BatchLookupProperties();
+            properties.getLoader().setEnabled(true);
+            properties.getLoader().setMaxWait(Duration.ofMillis(1));
+            return properties;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+
+    @MockitoBean
+    private UserDao userDao;
+
+    @MockitoBean
+    private UserBatchDao userBatchDao;
+
+    @MockitoBean
+    private CardDao cardDao;
+
+    @MockitoBean
+    private NegativeCache negativeCache;
+
+    @MockitoBean
+    private CacheAccessTracker cacheAccessTracker;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<Boolean> userBatchInTransaction = new AtomicReference<>();
+
+    private final AtomicReference<Boolean> cardBatchInTransaction = new AtomicReference<>();
+
+    private void recordBatchTransactions(long id) {
+        when(userDao.findUserRowsByIdIn(anyList())).thenAnswer(invocation -> {
+            userBatchInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return List.of(new UserCardRow(id, "Name", "Surname", LocalDate.of(2000, 1, 1),
+                    "email" + id + "@email.com", null, null, null, null));
+        });
+        when(cardDao.findCardResponsesByIdIn(anyList())).thenAnswer(invocation -> {
+            cardBatchInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return List.of(CardResponseDto.builder().id(id).userId(id).build());
+        });
+    }
+
+    @Test
+    public void loaderBatch_runsOutsideTransaction_forServiceCallers() {
+        recordBatchTransactions(1L);
+
+        userService.getUserById(1L);
+        cardService.getCardById(1L);
+
+        assertThat(userBatchInTransaction.get()).isFalse();
+        assertThat(cardBatchInTransaction.get()).isFalse();
+    }
+
+    @Test
+    public void loaderBatch_seesTransaction_openedByCaller() {
+        recordBatchTransactions(2L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.getUserById(2L);
+            cardService.getCardById(2L);
+        });
+
+        assertThat(userBatchInTransaction.get()).isTrue();
+        assertThat(cardBatchInTransaction.get()).isTrue();
+    }
+}
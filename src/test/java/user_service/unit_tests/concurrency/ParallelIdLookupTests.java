@@ -0,0 +1,69 @@
+package user_service.unit_tests.concurrency;
+
+import org.junit.jupiter.api.Test;
+import user_service.config.BatchLookupProperties;
+import user_service.dao.ParallelIdLookup;
+import user_service.exception.UsersNotFoundException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelIdLookupTests {
+    private ParallelIdLookup lookup(int maxConcurrentQueries) {
+        BatchLookupProperties properties = new BatchLookupProperties();
+        properties.setMaxConcurrentQueries(maxConcurrentQueries);
+        return new ParallelIdLookup(properties);
+    }
+
+    @Test
+    public void query_mergesChunksInRequestOrder() {
+        List<Long> ids = LongStream.rangeClosed(1, 20_000).map(id -> 20_001 - id).boxed().toList();
+
+        List<Long> result = lookup(4).query(ids, chunk -> {
+            sleep(chunk.getFirst() % 7);
+            return chunk;
+        });
+
+        assertThat(result).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    public void query_neverExceedsConcurrencyCap() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Long> ids = LongStream.rangeClosed(1, 10_000).boxed().toList();
+
+        lookup(3).query(ids, chunk -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return List.of();
+        });
+
+        assertThat(maxRunning.get()).isBetween(2, 3);
+    }
+
+    @Test
+    public void query_rethrowsChunkFailure() {
+        List<Long> ids = LongStream.rangeClosed(1, 5_000).boxed().toList();
+
+        assertThrows(UsersNotFoundException.class, () -> lookup(4).query(ids, chunk -> {
+            if (chunk.contains(3_000L)) {
+                throw new UsersNotFoundException();
+            }
+            return chunk;
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
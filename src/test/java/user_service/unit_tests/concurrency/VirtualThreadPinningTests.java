@@ -0,0 +1,75 @@
+package user_service.unit_tests.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import user_service.UserServiceApplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadPinningTests {
+    @Test
+    public void mainClasses_doNotUseSynchronized() throws IOException, URISyntaxException {
+        Path classesRoot = Path.of(UserServiceApplication.class.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI());
+        List<String> violations = new ArrayList<>();
+
+        try (Stream<Path> classFiles = Files.walk(classesRoot)) {
+            for (Path classFile : classFiles.filter(path -> path.toString().endsWith(".class")).toList()) {
+                try (InputStream inputStream = Files.newInputStream(classFile)) {
+                    new ClassReader(inputStream).accept(new SynchronizedFinder(violations),
+                            ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+                }
+            }
+        }
+
+        assertThat(violations).isEmpty();
+    }
+
+    private static class SynchronizedFinder extends ClassVisitor {
+        private final List<String> violations;
+
+        private String className;
+
+        SynchronizedFinder(List<String> violations) {
+            super(Opcodes.ASM9);
+            this.violations = violations;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature,
+                          String superName, String[] interfaces) {
+            className = name.replace('/', '.');
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                         String signature, String[] exceptions) {
+            String method = className + "#" + name;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                violations.add(method + " is synchronized");
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        violations.add(method + " contains a synchronized block");
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package user_service.unit_tests.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import user_service.dao.CardDao;
+import user_service.dao.UserDao;
+import user_service.entity.Card;
+import user_service.entity.User;
+import user_service.mapper.CardMapperImpl;
+import user_service.mapper.UserMapperImpl;
+import user_service.service.ExportService;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {ExportService.class,
+        UserMapperImpl.class,
+        CardMapperImpl.class,
+        ExportServiceUnitTests.ObjectMapperConfig.class})
+public class ExportServiceUnitTests {
+    @Configuration
+    static class ObjectMapperConfig {
+        @Bean
+        public ObjectMapper objectMapper() {
+            ObjectMapper objectMapper = new ObjectMapper();
+            objectMapper.registerModule(new JavaTimeModule());
+            return objectMapper;
+        }
+    }
+
+    @MockitoBean
+    private UserDao userDao;
+
+    @MockitoBean
+    private CardDao cardDao;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User buildUser(long id) {
+        return User.builder()
+                .id(id)
+                .name("Name")
+                .surname("Surname")
+                .email(id + "@email.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private Card buildCard(long id, User user) {
+        return Card.builder()
+                .id(id)
+                .user(user)
+                .number("0011223344556677")
+                .holder("CARD HOLDER")
+                .expirationDate("03/27")
+                .build();
+    }
+
+    @Test
+    public void exportUsers_writesOneJsonLinePerUser_withCardsFromOneQuery() throws Exception {
+        User first = buildUser(1L);
+        User second = buildUser(2L);
+        when(userDao.streamUsersByIdGreaterThanOrderByIdAsc(0L, Limit.unlimited()))
+                .thenReturn(Stream.of(first, second));
+        when(cardDao.findCardsByUserIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(buildCard(10L, first), buildCard(11L, first)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportUsers(0L, null, outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("cards")).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+        assertThat(objectMapper.readTree(lines[1]).get("cards")).isEmpty();
+        verify(entityManager, atLeastOnce()).clear();
+    }
+
+    @Test
+    public void exportCards_respectsKeysetAndLimit() throws Exception {
+        User user = buildUser(1L);
+        when(cardDao.streamCardsByIdGreaterThanOrderByIdAsc(5L, Limit.of(1)))
+                .thenReturn(Stream.of(buildCard(6L, user)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportCards(5L, 1, outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(6L);
+        assertThat(objectMapper.readTree(lines[0]).get("userId").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    public void exportUsers_noUsers_writesNothing() throws Exception {
+        when(userDao.streamUsersByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenReturn(Stream.empty());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportUsers(100L, null, outputStream);
+
+        assertThat(outputStream.size()).isZero();
+    }
+}
@@ -1,22 +1,40 @@
 package user_service.unit_tests.user;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import user_service.cache.CacheAccessTracker;
+import user_service.cache.NegativeCache;
+import user_service.dao.UserBatchDao;
 import user_service.dao.UserDao;
+import user_service.dto.user.UserCardIdRow;
+import user_service.dto.user.UserCardRow;
 import user_service.dto.user.UserRequestDto;
 import user_service.entity.Card;
 import user_service.entity.User;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceBaseTests {
     @MockitoBean
     protected UserDao userDao;
 
+    @MockitoBean
+    protected UserBatchDao userBatchDao;
+
+    @MockitoBean
+    protected NegativeCache negativeCache;
+
+    @MockitoBean
+    protected CacheAccessTracker cacheAccessTracker;
+
     protected User user;
 
     protected UserRequestDto userRequestDto;
@@ -43,6 +61,29 @@ public class UserServiceBaseTests {
                 Card.builder().id(2L).user(user).build()));
     }
 
+    protected List<UserCardRow> toRows(User... users) {
+        return Arrays.stream(users)
+                .flatMap(user -> user.getCards() == null || user.getCards().isEmpty()
+                        ? Stream.of(new UserCardRow(user.getId(), user.getName(), user.getSurname(),
+                                user.getBirthDate(), user.getEmail(), null, null, null, null))
+                        : user.getCards().stream().map(card -> new UserCardRow(user.getId(),
+                                user.getName(), user.getSurname(), user.getBirthDate(),
+                                user.getEmail(), card.getId(), card.getNumber(),
+                                card.getHolder(), card.getExpirationDate())))
+                .toList();
+    }
+
+    protected List<UserCardIdRow> toCardIdRows(User user) {
+        return user.getCards().stream()
+                .map(card -> new UserCardIdRow(user.getId(), user.getEmail(), card.getId()))
+                .toList();
+    }
+
+    protected DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("duplicate key value violates unique constraint",
+                new ConstraintViolationException("duplicate key", null, constraintName));
+    }
+
     private UserRequestDto buildUserRequestDto() {
         return UserRequestDto.builder()
                 .name("Name")
@@ -1,5 +1,7 @@
 package user_service.unit_tests.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,16 +11,28 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.config.BatchLookupProperties;
+import user_service.config.StampedeProtectionProperties;
+import user_service.dao.BatchingUserLookup;
+import user_service.dao.ParallelIdLookup;
+import user_service.dto.card.CardResponseDto;
+import user_service.dto.user.UserCardIdRow;
 import user_service.dto.user.UserResponseDto;
 import user_service.entity.User;
+import user_service.exception.UserNotFoundException;
 import user_service.mapper.CardMapperImpl;
 import user_service.mapper.UserMapperImpl;
 import user_service.service.UserService;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,7 +41,14 @@ import static org.mockito.Mockito.when;
 @SpringBootTest(classes = {UserService.class,
         UserMapperImpl.class,
         CardMapperImpl.class,
-        UserServiceCacheTests.CacheTestConfig.class,})
+        LocalValidatorFactoryBean.class,
+        UserServiceCacheTests.CacheTestConfig.class,
+        CacheLoadCoordinator.class,
+        StampedeProtectionProperties.class,
+        ParallelIdLookup.class,
+        BatchingUserLookup.class,
+        BatchLookupProperties.class,
+        SimpleMeterRegistry.class})
 public class UserServiceCacheTests extends UserServiceBaseTests {
     @Configuration
     @EnableCaching
@@ -44,25 +65,79 @@ public class UserServiceCacheTests extends UserServiceBaseTests {
     @Autowired
     private UserService userService;
 
+    @AfterEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
     @Test
     public void getUserById_shouldCacheResult() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.of(user));
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
 
         UserResponseDto firstResult = userService.getUserById(1L);
 
         Cache userCache = cacheManager.getCache("user:id");
         assertThat(userCache).isNotNull();
-        assertThat(userCache.get(1L).get()).isEqualTo(firstResult);
+        assertThat(userCache.get(1L).get()).isEqualTo(withoutCards(firstResult));
+        assertThat((long[]) cacheManager.getCache("user:cards").get(1L).get()).containsExactly(1L, 2L);
+        assertThat(cacheManager.getCache("card:id").get(1L)).isNotNull();
+    }
+
+    private UserResponseDto withoutCards(UserResponseDto user) {
+        return user.toBuilder().cards(null).build();
+    }
+
+    @Test
+    public void getUserById_updatedCardEntry_isAssembledWithoutReload() {
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+        userService.getUserById(1L);
+
+        CardResponseDto updatedCard = CardResponseDto.builder().id(2L).userId(1L)
+                .number("7766554433221100").build();
+        cacheManager.getCache("card:id").put(2L, updatedCard);
+        UserResponseDto result = userService.getUserById(1L);
+
+        verify(userDao, times(1)).findUserRowsById(1L);
+        assertThat(result.getCards()).extracting(CardResponseDto::getNumber)
+                .contains("7766554433221100");
+    }
+
+    @Test
+    public void getUserById_cardSetEvicted_loadsOnlyCardIds() {
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+        when(userDao.findUserCardIdsByIdIn(List.of(1L))).thenReturn(toCardIdRows(user));
+        userService.getUserById(1L);
+
+        cacheManager.getCache("user:cards").evict(1L);
+        UserResponseDto result = userService.getUserById(1L);
+
+        verify(userDao, times(1)).findUserRowsById(1L);
+        assertThat(result.getCards()).hasSize(2);
+        assertThat((long[]) cacheManager.getCache("user:cards").get(1L).get()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void getUserById_cardSetAndCardEvicted_reloadsUser() {
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+        when(userDao.findUserCardIdsByIdIn(List.of(1L))).thenReturn(toCardIdRows(user));
+        userService.getUserById(1L);
+
+        cacheManager.getCache("user:cards").evict(1L);
+        cacheManager.getCache("card:id").evict(2L);
+        UserResponseDto result = userService.getUserById(1L);
+
+        verify(userDao, times(2)).findUserRowsById(1L);
+        assertThat(result.getCards()).hasSize(2);
     }
 
     @Test
     public void getUserById_useCachedResult() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.of(user));
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
 
         UserResponseDto firstResult = userService.getUserById(1L);
         UserResponseDto secondResult = userService.getUserById(1L);
 
-        verify(userDao, times(1)).findUserById(1L);
+        verify(userDao, times(1)).findUserRowsById(1L);
         assertThat(firstResult).isNotNull();
         assertThat(secondResult).isNotNull();
         assertThat(firstResult).isEqualTo(secondResult);
@@ -70,7 +145,7 @@ public class UserServiceCacheTests extends UserServiceBaseTests {
 
     @Test
     public void createUser_shouldCacheResult() {
-        when(userDao.save(any(User.class))).thenReturn(user);
+        when(userDao.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserResponseDto responseDtoAfterCreate = userService.createUser(userRequestDto);
         Cache userCache = cacheManager.getCache("user:id");
@@ -78,12 +153,12 @@ public class UserServiceCacheTests extends UserServiceBaseTests {
 
         assertThat(userCache).isNotNull();
         assertThat(userCache.get(id).get()).isNotNull();
-        assertThat(userCache.get(id).get()).isEqualTo(responseDtoAfterCreate);
+        assertThat(userCache.get(id).get()).isEqualTo(withoutCards(responseDtoAfterCreate));
     }
 
     @Test
     public void updateUser_shouldUpdateCacheResult() {
-        when(userDao.save(any(User.class))).thenReturn(user);
+        when(userDao.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserResponseDto responseDtoAfterCreate = userService.createUser(userRequestDto);
         long id = responseDtoAfterCreate.getId();
@@ -95,18 +170,116 @@ public class UserServiceCacheTests extends UserServiceBaseTests {
         Cache userCache = cacheManager.getCache("user:id");
         assertThat(userCache).isNotNull();
         assertThat(userCache.get(id).get()).isNotNull();
-        assertThat(userCache.get(id).get()).isEqualTo(responseDtoAfterModify);
-        assertThat(userCache.get(id).get()).isNotEqualTo(responseDtoAfterCreate);
+        assertThat(userCache.get(id).get()).isEqualTo(withoutCards(responseDtoAfterModify));
+        assertThat(userCache.get(id).get()).isNotEqualTo(withoutCards(responseDtoAfterCreate));
     }
 
     @Test
     public void deleteUser_shouldDeleteCacheResult() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.of(user));
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+        when(userDao.lockUsersByIdIn(new Long[]{1L})).thenReturn(List.of(1L));
+        when(userDao.findUserCardIdsById(1L)).thenReturn(toCardIdRows(user));
+        userService.getUserById(1L);
+
         userService.deleteUser(1L);
 
         Cache userCache = cacheManager.getCache("user:id");
         if (userCache != null) {
             assertThat(userCache.get(1L)).isNull();
         }
+        assertThat(cacheManager.getCache("user:cards").get(1L)).isNull();
+        assertThat(cacheManager.getCache("card:id").get(1L)).isNull();
+        assertThat(cacheManager.getCache("card:id").get(2L)).isNull();
+    }
+
+    @Test
+    public void getUsersByIds_loadsOnlyMissingUsers_andCachesThem() {
+        User user2 = buildUser();
+        user2.setId(2L);
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+        when(userDao.findUserRowsByIdIn(List.of(2L))).thenReturn(toRows(user2));
+
+        userService.getUserById(1L);
+        List<UserResponseDto> users = userService.getUsersByIds(List.of(1L, 2L));
+
+        verify(userDao, times(1)).findUserRowsByIdIn(List.of(2L));
+        assertThat(users).extracting(UserResponseDto::getId).containsExactly(1L, 2L);
+        assertThat(cacheManager.getCache("user:id").get(2L)).isNotNull();
+    }
+
+    @Test
+    public void getUsersByIds_allCached_skipsDatabase() {
+        when(userDao.findUserRowsById(1L)).thenReturn(toRows(user));
+
+        userService.getUserById(1L);
+        List<UserResponseDto> users = userService.getUsersByIds(List.of(1L));
+
+        verify(userDao, never()).findUserRowsByIdIn(any());
+        assertThat(users).hasSize(1);
+    }
+
+    @Test
+    public void getUserByEmail_cachesIdIndex_andReusesUserEntry() {
+        when(userDao.findUserRowsByEmail("email@email.com")).thenReturn(toRows(user));
+
+        UserResponseDto firstResult = userService.getUserByEmail("email@email.com");
+        UserResponseDto secondResult = userService.getUserByEmail("email@email.com");
+
+        verify(userDao, times(1)).findUserRowsByEmail("email@email.com");
+        assertThat(secondResult).isEqualTo(firstResult);
+        assertThat(cacheManager.getCache("user:email").get("email@email.com").get()).isEqualTo(1L);
+        assertThat(cacheManager.getCache("user:id").get(1L).get()).isEqualTo(withoutCards(firstResult));
+    }
+
+    @Test
+    public void updateUser_emailChange_evictsPreviousEmailIndex() {
+        when(userDao.findUserRowsByEmail("email@email.com")).thenReturn(toRows(user));
+        when(userDao.findUserById(1L)).thenReturn(Optional.of(user));
+        when(userDao.saveAndFlush(any(User.class))).thenReturn(user);
+        userService.getUserByEmail("email@email.com");
+
+        userRequestDto.setEmail("changed@email.com");
+        userService.updateUser(userRequestDto, 1L);
+
+        when(userDao.findUserRowsByEmail("email@email.com")).thenReturn(List.of());
+        assertThat(cacheManager.getCache("user:email").get("email@email.com")).isNull();
+        assertThrows(UserNotFoundException.class,
+                () -> userService.getUserByEmail("email@email.com"));
+    }
+
+    @Test
+    public void deleteUser_evictsEmailIndex() {
+        when(userDao.findUserRowsByEmail("email@email.com")).thenReturn(toRows(user));
+        when(userDao.lockUsersByIdIn(new Long[]{1L})).thenReturn(List.of(1L));
+        when(userDao.findUserCardIdsById(1L)).thenReturn(toCardIdRows(user));
+        userService.getUserByEmail("email@email.com");
+
+        userService.deleteUser(1L);
+
+        assertThat(cacheManager.getCache("user:email").get("email@email.com")).isNull();
+    }
+
+    @Test
+    public void deleteUsers_evictsOnlyDeletedUsers() {
+        User user2 = buildUser();
+        user2.setId(2L);
+        user2.setEmail("another@email.com");
+        user2.setCards(List.of());
+        when(userDao.findUserRowsByIdIn(List.of(1L, 2L))).thenReturn(toRows(user, user2));
+        userService.getUsersByIds(List.of(1L, 2L));
+        when(userDao.lockUsersByIdIn(new Long[]{1L, 2L, 3L})).thenReturn(List.of(1L));
+        when(userDao.findUserCardIdsByIdIn(List.of(1L)))
+                .thenReturn(List.of(new UserCardIdRow(1L, "email@email.com", 1L),
+                        new UserCardIdRow(1L, "email@email.com", 2L)));
+        when(userDao.deleteUsersByIdIn(new Long[]{1L})).thenReturn(List.of(1L));
+
+        List<Long> deletedIds = userService.deleteUsers(List.of(1L, 2L, 3L));
+
+        assertThat(deletedIds).containsExactly(1L);
+        assertThat(cacheManager.getCache("user:id").get(1L)).isNull();
+        assertThat(cacheManager.getCache("user:cards").get(1L)).isNull();
+        assertThat(cacheManager.getCache("card:id").get(1L)).isNull();
+        assertThat(cacheManager.getCache("card:id").get(2L)).isNull();
+        assertThat(cacheManager.getCache("user:id").get(2L)).isNotNull();
     }
 }
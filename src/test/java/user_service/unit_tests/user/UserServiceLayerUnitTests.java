@@ -1,5 +1,6 @@
 package user_service.unit_tests.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -8,27 +9,41 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import user_service.cache.CacheLoadCoordinator;
+import user_service.config.BatchLookupProperties;
+import user_service.config.StampedeProtectionProperties;
+import user_service.dao.BatchingUserLookup;
+import user_service.dao.ParallelIdLookup;
+import user_service.dto.user.UserImportResultDto;
 import user_service.dto.user.UserRequestDto;
 import user_service.dto.user.UserResponseDto;
 import user_service.entity.User;
 import user_service.exception.EmailAlreadyExistsException;
+import user_service.exception.InvalidRequestException;
+import user_service.exception.UniqueConstraints;
 import user_service.exception.UserNotFoundException;
 import user_service.exception.UsersNotFoundException;
 import user_service.mapper.CardMapperImpl;
 import user_service.mapper.UserMapperImpl;
 import user_service.service.UserService;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,7 +51,14 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 @SpringBootTest(classes = {UserService.class,
         UserMapperImpl.class,
-        CardMapperImpl.class})
+        CardMapperImpl.class,
+        LocalValidatorFactoryBean.class,
+        CacheLoadCoordinator.class,
+        StampedeProtectionProperties.class,
+        ParallelIdLookup.class,
+        BatchingUserLookup.class,
+        BatchLookupProperties.class,
+        SimpleMeterRegistry.class})
 public class UserServiceLayerUnitTests extends UserServiceBaseTests {
     @Autowired
     private UserService userService;
@@ -54,28 +76,74 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
 
     @Test
     public void createUserTest_success() {
-        given(userDao.save(any(User.class))).willReturn(user);
+        given(userDao.saveAndFlush(any(User.class))).willReturn(user);
 
         UserResponseDto userResponseDto = userService.createUser(userRequestDto);
 
         assertThat(userResponseDto).isNotNull();
         assertNotEquals(0, userResponseDto.getId());
         assertThat(requestResponseEquals(userRequestDto, userResponseDto)).isTrue();
+        verify(negativeCache).evict("user:id", userResponseDto.getId());
     }
 
     @Test
     public void createUserTest_failure_emailAlreadyExists() {
-        given(userDao.save(any(User.class))).willReturn(user);
-        given(userDao.findUserByEmail("email@email.com")).willReturn(Optional.of(user));
+        given(userDao.saveAndFlush(any(User.class)))
+                .willThrow(uniqueViolation(UniqueConstraints.USERS_EMAIL));
 
         assertThrows(EmailAlreadyExistsException.class,
                 () -> userService.createUser(userRequestDto),
                 "Email address email@email.com already exists");
     }
 
+    @Test
+    public void createUsersTest_reportsStatusPerRow() {
+        UserRequestDto existing = buildImportedUser("existing@email.com");
+        UserRequestDto fresh = buildImportedUser("fresh@email.com");
+        UserRequestDto duplicate = buildImportedUser("fresh@email.com");
+        UserRequestDto invalid = buildImportedUser("@invalid");
+        given(userBatchDao.insertUsers(any())).willAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setId(10L + i);
+            }
+            return Set.of(11L);
+        });
+
+        List<UserImportResultDto> results = userService.createUsers(
+                Arrays.asList(existing, fresh, duplicate, invalid, null));
+
+        assertThat(results).extracting(UserImportResultDto::getStatus).containsExactly(
+                UserImportResultDto.Status.DUPLICATE_EMAIL,
+                UserImportResultDto.Status.CREATED,
+                UserImportResultDto.Status.DUPLICATE_EMAIL,
+                UserImportResultDto.Status.INVALID,
+                UserImportResultDto.Status.INVALID);
+        assertThat(results.get(1).getId()).isEqualTo(11L);
+        assertThat(results.get(3).getErrors()).containsExactly("Incorrect email format");
+        verify(userBatchDao, times(1)).insertUsers(argThat(users -> users.size() == 2));
+    }
+
+    @Test
+    public void createUsersTest_throwsException_whenBatchIsTooLarge() {
+        List<UserRequestDto> users = Collections.nCopies(10_001, userRequestDto);
+
+        assertThrows(InvalidRequestException.class, () -> userService.createUsers(users));
+        verify(userBatchDao, never()).insertUsers(any());
+    }
+
+    private UserRequestDto buildImportedUser(String email) {
+        return UserRequestDto.builder()
+                .name("Name")
+                .surname("Surname")
+                .email(email)
+                .birthDate(LocalDate.now().minusYears(20))
+                .build();
+    }
+
     @Test
     public void getUserByIdTest_success() {
-        given(userDao.findUserById(1L)).willReturn(Optional.ofNullable(user));
+        given(userDao.findUserRowsById(1L)).willReturn(toRows(user));
 
         UserResponseDto userResponseDto = userService.getUserById(1L);
 
@@ -85,16 +153,24 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
 
     @Test
     public void getUserByIdTest_throwsException_whenUserIdDoesNotExist() {
-        given(userDao.findUserById(1L)).willReturn(Optional.ofNullable(user));
+        given(userDao.findUserRowsById(1L)).willReturn(toRows(user));
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(2L),
                 "User with id 2 not found");
+        verify(negativeCache).putMissing("user:id", 2L, 0L);
+    }
+
+    @Test
+    public void getUserByIdTest_knownMissingId_skipsDatabase() {
+        given(negativeCache.isMissing("user:id", 2L)).willReturn(true);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(2L));
+        verify(userDao, never()).findUserRowsById(any());
     }
 
     @Test
     public void getUserByEmailTest_success() {
-        given(userDao.findUserByEmail("email@email.com"))
-                .willReturn(Optional.ofNullable(user));
+        given(userDao.findUserRowsByEmail("email@email.com")).willReturn(toRows(user));
 
         UserResponseDto userResponseDto = userService.getUserByEmail("email@email.com");
 
@@ -113,7 +189,7 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
     public void getAllUsersByIdsTest_success() {
         User user2 = buildUser();
         user2.setId(2L);
-        given(userDao.findUsersByIdIn(List.of(1L, 2L))).willReturn(List.of(user, user2));
+        given(userDao.findUserRowsByIdIn(List.of(1L, 2L))).willReturn(toRows(user, user2));
 
         List<UserResponseDto> users = userService.getUsersByIds(List.of(1L, 2L));
 
@@ -124,7 +200,7 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
 
     @Test
     public void getAllUsersByIdsTest_notAllUsers() {
-        given(userDao.findUsersByIdIn(List.of(1L, 2L))).willReturn(List.of(user));
+        given(userDao.findUserRowsByIdIn(List.of(1L, 2L))).willReturn(toRows(user));
 
         List<UserResponseDto> users = userService.getUsersByIds(List.of(1L, 2L));
 
@@ -132,6 +208,18 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
         assertThat(users.getFirst().getId()).isEqualTo(1L);
     }
 
+    @Test
+    public void getAllUsersByIdsTest_largeIdList_queriesInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+        given(userDao.findUserRowsByIdIn(any())).willReturn(List.of());
+        given(userDao.findUserRowsByIdIn(ids.subList(0, 1_000))).willReturn(toRows(user));
+
+        List<UserResponseDto> users = userService.getUsersByIds(ids);
+
+        assertThat(users).hasSize(1);
+        verify(userDao, times(3)).findUserRowsByIdIn(argThat(chunk -> chunk.size() <= 1_000));
+    }
+
     @Test
     public void getAllUsersByIdsTest_noUsersFound_throwsException() {
         assertThrows(UsersNotFoundException.class,
@@ -140,7 +228,7 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
 
     @Test
     public void updateUserTest_success() {
-        given(userDao.save(any(User.class))).willReturn(user);
+        given(userDao.saveAndFlush(any(User.class))).willReturn(user);
         given(userDao.findUserById(1L)).willReturn(Optional.ofNullable(user));
 
         userService.createUser(userRequestDto);
@@ -168,10 +256,9 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
         user2.setEmail("another@email.com");
         userRequestDto.setEmail("email@email.com");
 
-        given(userDao.save(any(User.class))).willReturn(user2);
+        given(userDao.saveAndFlush(any(User.class)))
+                .willThrow(uniqueViolation(UniqueConstraints.USERS_EMAIL));
         given(userDao.findUserById(2L)).willReturn(Optional.of(user2));
-        given(userDao.findUserByEmail("email@email.com"))
-                .willReturn(Optional.ofNullable(user));
 
         assertThrows(EmailAlreadyExistsException.class,
                 () -> userService.updateUser(userRequestDto, 2L));
@@ -179,21 +266,26 @@ public class UserServiceLayerUnitTests extends UserServiceBaseTests {
 
     @Test
     public void deleteUserTest_success() {
-        when(userDao.findUserById(1L)).thenReturn(Optional.ofNullable(user));
+        when(userDao.lockUsersByIdIn(new Long[]{1L})).thenReturn(List.of(1L));
+        when(userDao.findUserCardIdsById(1L)).thenReturn(toCardIdRows(user));
         Cache mockCache = mock(Cache.class);
         when(cacheManager.getCache("card:id")).thenReturn(mockCache);
-        doNothing().when(mockCache).evict(any(Long.class));
-        willDoNothing().given(userDao).delete(user);
+        when(userDao.deleteUserById(1L)).thenReturn(1);
 
         userService.deleteUser(1L);
 
-        verify(userDao, times(1)).delete(user);
+        verify(userDao, times(1)).deleteUserById(1L);
+        verify(userDao, never()).delete(any(User.class));
+        verify(mockCache).evict(1L);
+        verify(mockCache).evict(2L);
     }
 
     @Test
     public void deleteUserTest_throwsException_whenUserDoesNotExist() {
-        given(userDao.findUserById(1L)).willReturn(Optional.ofNullable(user));
+        given(userDao.lockUsersByIdIn(new Long[]{2L})).willReturn(List.of());
 
         assertThrows(UserNotFoundException.class, () -> userService.deleteUser(2L));
+        verify(userDao, never()).findUserCardIdsById(any());
+        verify(userDao, never()).deleteUserById(any());
     }
 }